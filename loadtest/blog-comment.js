@@ -0,0 +1,56 @@
+// k6 load test for the /api/blog and /api/comment hot paths.
+//
+// Compare platform vs virtual threads by running the app twice against the same database:
+//   SPRING_THREADS_VIRTUAL_ENABLED=false java -jar target/BlogManager-0.0.1-SNAPSHOT.jar
+//   SPRING_THREADS_VIRTUAL_ENABLED=true  APP_VIRTUAL_THREADS_PINNING_MONITOR_ENABLED=true java -jar target/BlogManager-0.0.1-SNAPSHOT.jar
+// and each time:
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=400 loadtest/blog-comment.js
+// then compare http_req_duration p95/p99, http_reqs/s and the 503 (pool saturated) rate, and check the app log for
+// "virtual thread pinned" warnings.
+// All virtual users share one account: start the app with APP_RATE_LIMIT_ENABLED=false, or RateLimitFilter answers 429.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+
+export const options = {
+    scenarios: {
+        mixed: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: Number(__ENV.VUS || 200) },
+                { duration: '2m', target: Number(__ENV.VUS || 200) },
+                { duration: '15s', target: 0 },
+            ],
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    const user = { name: 'Load Test', userId: `loadtest${Date.now()}`, password: 'loadtest', userType: 'USER' };
+    http.post(`${BASE_URL}/api/user/auth/register`, JSON.stringify(user), { headers: { 'Content-Type': 'application/json' } });
+    const login = http.post(`${BASE_URL}/api/user/auth/login`, JSON.stringify({ userId: user.userId, password: user.password }),
+        { headers: { 'Content-Type': 'application/json' } });
+    const token = login.json('data');
+    const headers = { 'Content-Type': 'application/json', Authorization: `Bearer ${token}` };
+
+    const blog = http.post(`${BASE_URL}/api/blog/`, JSON.stringify({ title: 'load test', content: 'x'.repeat(2000) }), { headers });
+    return { headers, blogId: blog.json('data.id') };
+}
+
+export default function (data) {
+    const { headers, blogId } = data;
+    const roll = Math.random();
+    if (roll < 0.6) {
+        check(http.get(`${BASE_URL}/api/blog/${blogId}`, { headers }), { 'blog 200': (r) => r.status === 200 });
+    } else if (roll < 0.9) {
+        check(http.get(`${BASE_URL}/api/comment/blog/${blogId}?size=20`, { headers }), { 'comments 200': (r) => r.status === 200 });
+    } else {
+        check(http.post(`${BASE_URL}/api/comment/${blogId}`, JSON.stringify({ content: 'load test comment' }), { headers }),
+            { 'comment 201': (r) => r.status === 201 });
+    }
+}
@@ -0,0 +1,27 @@
+-- Seeds 1M blogs for one author, for loadtest/blogs-mine.js (GET /api/blog/mine).
+-- Register the author through the API first (the password has to be a real BCrypt hash), then:
+--   psql -h localhost -U postgres -d blog -v author=minebench -f loadtest/blogs-mine-seed.sql
+-- ids come from blogs_seq like the app's own inserts, so blogs created afterwards don't collide.
+\timing on
+
+INSERT INTO blogs (id, title, content, user_id, version, comment_count)
+SELECT nextval('blogs_seq'), 'mine bench ' || g, repeat('lorem ipsum ', 40), u.id, 0, 0
+FROM users u, generate_series(1, 1000000) g
+WHERE u.user_id = :'author';
+
+ANALYZE blogs;
+
+-- first and a deep page of the listing query: both should be an Index Scan Backward using idx_blogs_user_id_id
+-- reading ~11 rows, with no Sort node and no scan of other authors' rows
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.id, b.title, u.user_id, b.comment_count, substr(b.content, 1, 200)
+FROM blogs b JOIN users u ON u.id = b.user_id
+WHERE u.user_id = :'author' AND b.id < 9223372036854775807
+ORDER BY b.id DESC LIMIT 11;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT b.id, b.title, u.user_id, b.comment_count, substr(b.content, 1, 200)
+FROM blogs b JOIN users u ON u.id = b.user_id
+WHERE u.user_id = :'author'
+  AND b.id < (SELECT min(id) + 100 FROM blogs WHERE user_id = (SELECT id FROM users WHERE user_id = :'author'))
+ORDER BY b.id DESC LIMIT 11;
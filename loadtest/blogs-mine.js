@@ -0,0 +1,51 @@
+// k6 benchmark for GET /api/blog/mine with 1M blogs for one author.
+//
+// Setup (once):
+//   curl -H 'Content-Type: application/json' -d '{"name":"Mine Bench","userId":"minebench","password":"loadtest","userType":"USER"}' \
+//        http://localhost:8080/api/user/auth/register
+//   psql -h localhost -U postgres -d blog -v author=minebench -f loadtest/blogs-mine-seed.sql
+// Run:
+//   k6 run -e BASE_URL=http://localhost:8080 -e VUS=50 -e DEPTH=200 loadtest/blogs-mine.js
+// All virtual users share one account: start the app with APP_RATE_LIMIT_ENABLED=false, or RateLimitFilter answers 429.
+// Every iteration walks DEPTH pages of the author's blogs by following nextCursor. With keyset pagination the
+// latency of page 1 and page DEPTH should be the same: compare http_req_duration{page:first} with {page:deep}.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const DEPTH = Number(__ENV.DEPTH || 200);
+const SIZE = Number(__ENV.SIZE || 20);
+
+export const options = {
+    scenarios: {
+        walk: {
+            executor: 'constant-vus',
+            vus: Number(__ENV.VUS || 50),
+            duration: __ENV.DURATION || '2m',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        'http_req_duration{page:first}': ['p(95)<100'],
+        'http_req_duration{page:deep}': ['p(95)<100'],
+    },
+};
+
+export function setup() {
+    const login = http.post(`${BASE_URL}/api/user/auth/login`,
+        JSON.stringify({ userId: __ENV.AUTHOR || 'minebench', password: __ENV.PASSWORD || 'loadtest' }),
+        { headers: { 'Content-Type': 'application/json' } });
+    return { headers: { Authorization: `Bearer ${login.json('data')}` } };
+}
+
+export default function (data) {
+    let cursor = '';
+    for (let page = 1; page <= DEPTH; page++) {
+        const tag = page === 1 ? 'first' : page === DEPTH ? 'deep' : 'middle';
+        const res = http.get(`${BASE_URL}/api/blog/mine?size=${SIZE}&cursor=${encodeURIComponent(cursor)}`,
+            { headers: data.headers, tags: { page: tag } });
+        check(res, { 'mine 200': (r) => r.status === 200 });
+        cursor = res.json('data.nextCursor');
+        if (!cursor) break;
+    }
+}
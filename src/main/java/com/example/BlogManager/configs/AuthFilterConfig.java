@@ -1,6 +1,11 @@
 package com.example.BlogManager.configs;
 
 import com.example.BlogManager.objects.JwtFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -10,47 +15,67 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class AuthFilterConfig {
     private final JwtFilter jwtFilter;
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
 
-    public AuthFilterConfig(JwtFilter jwtFilter, UserDetailsService userDetailsService) {
+    public AuthFilterConfig(JwtFilter jwtFilter, UserDetailsService userDetailsService, UserDetailsPasswordService userDetailsPasswordService) {
         this.jwtFilter = jwtFilter;
         this.userDetailsService = userDetailsService;
+        this.userDetailsPasswordService = userDetailsPasswordService;
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        return http
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, RateLimitProperties rateLimitProperties,
+                                                   ObjectMapper objectMapper, MeterRegistry meterRegistry) throws Exception {
+        http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // streamed responses (bulk create, export) finish in an ASYNC dispatch; the JWT filter doesn't run again
+                        // and the stateless context is gone, but the request was already authorized when it started
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // Define public endpoints here
                         .requestMatchers("/api/user/auth/**",
                                 "/swagger-ui/**",
                                 "/swagger-ui.html",
                                 "/swagger-ui/index.html",
                                 "/webjars/**",
-                                "/v1/api-docs/**").permitAll()
+                                "/v1/api-docs/**",
+                                "/actuator/health").permitAll()
+                        // the scrape exposes traffic per uri, pool state, JWT failures and rate-limit rejections -> admins only
+                        // (Prometheus scrapes with an admin JWT, authorization.credentials in the scrape config)
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 // Stateless session management (essential for JWT)
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 // Add your custom filter
-                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
-                .build();
+                .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class);
+        if (rateLimitProperties.enabled()) {
+            // after JwtFilter -> the authenticated userId is known; created here, not as a bean (see RateLimitFilter)
+            http.addFilterAfter(new RateLimitFilter(rateLimitProperties, objectMapper, meterRegistry), JwtFilter.class);
+        }
+        return http.build();
     }
 
+    // BCrypt runs on its own bounded executor, see BoundedPasswordEncoder
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.strength:10}") int strength,
+                                           @Value("${app.security.bcrypt.threads:0}") int threads,
+                                           @Value("${app.security.bcrypt.queue-capacity:100}") int queueCapacity,
+                                           MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(strength, poolSize, queueCapacity, meterRegistry);
     }
 
     @Bean
@@ -60,10 +85,12 @@ public class AuthFilterConfig {
 
     // Connects Spring Security to your DB logic
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
         provider.setUserDetailsService(userDetailsService);
+        // rehashes the password on a successful login when app.security.bcrypt.strength was raised
+        provider.setUserDetailsPasswordService(userDetailsPasswordService);
         return provider;
     }
 }
@@ -0,0 +1,26 @@
+package com.example.BlogManager.configs;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Metrics surface, scraped from /actuator/prometheus (ADMIN only, see AuthFilterConfig). What is timed where:
+//   http.server.requests            every endpoint, tagged by uri template/method/status (Spring MVC, automatic)
+//   service.calls                   public methods of @Timed services, tagged class/method/exception (TimedAspect below)
+//   spring.data.repository.invocations  every repository method, tagged repository/method/state (Spring Data, automatic)
+//   hikaricp.connections.*          pool usage and acquire/usage times (automatic)
+//   jwt.validation                  JwtFilter, tagged outcome=valid|invalid
+//   password.hash                   BCrypt encode/matches, see BoundedPasswordEncoder
+//   cache.gets/puts/evictions       PrincipalCache, tagged cache=principal (Caffeine stats)
+// Services that take request traffic carry a class-level @Timed("service.calls") and nothing more: TimedAspect turns
+// that into one timer per public method, so a new service only needs the annotation to show up next to the others.
+// Histograms are switched on per meter in application.properties (management.metrics.distribution.*),
+// the number of distinct uri tags is capped there too (management.metrics.web.server.max-uri-tags).
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.BlogManager.configs;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Schema bits that hibernate ddl-auto=update can't express, applied after Hibernate has updated the schema.
+// Only runs against PostgreSQL; every statement is idempotent.
+@Slf4j
+@Component
+public class PostgresSchemaInitializer {
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+
+    // EntityManagerFactory is injected only so this runs after Hibernate's schema update
+    public PostgresSchemaInitializer(JdbcTemplate jdbcTemplate, DataSource dataSource, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    public void initialize() throws SQLException {
+        if (!isPostgres()) return;
+
+        // blogs.id moved from IDENTITY to blogs_seq (allocationSize 50): never hand out ids that already exist
+        jdbcTemplate.execute("SELECT setval('blogs_seq', GREATEST(last_value, (SELECT COALESCE(MAX(id), 0) FROM blogs) + 50)) FROM blogs_seq");
+
+        // full-text search: title weighted above content, kept in sync by postgres itself (PG 12+ generated column)
+        jdbcTemplate.execute("ALTER TABLE blogs ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS ("
+                + "setweight(to_tsvector('english', coalesce(title, '')), 'A') || "
+                + "setweight(to_tsvector('english', coalesce(content, '')), 'B')) STORED");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_blogs_search_vector ON blogs USING GIN (search_vector)");
+        log.info("postgres schema initialized");
+    }
+
+    private boolean isPostgres() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        }
+    }
+}
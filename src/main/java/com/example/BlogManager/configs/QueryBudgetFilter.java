@@ -0,0 +1,83 @@
+package com.example.BlogManager.configs;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// Counts the SQL statements and JDBC time of every request (see QueryStats).
+// Outside the prod profile the numbers are sent back as X-Query-Count / X-DB-Time (ms) headers;
+// in every profile a request over app.query-budget.* is logged, which is where N+1 regressions show up first.
+// Runs before the security chain, so the user lookup of JwtFilter is included.
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+    static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    static final String DB_TIME_HEADER = "X-DB-Time";
+
+    private final boolean headers;
+    private final int maxQueries;
+    private final long maxDbNanos;
+
+    public QueryBudgetFilter(Environment environment,
+                             @Value("${app.query-budget.max-queries:20}") int maxQueries,
+                             @Value("${app.query-budget.max-db-time:PT0.5S}") Duration maxDbTime) {
+        this.headers = !environment.acceptsProfiles(Profiles.of("prod"));
+        this.maxQueries = maxQueries;
+        this.maxDbNanos = maxDbTime.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.begin();
+        try {
+            chain.doFilter(request, headers ? new StatsHeaderResponse(response, stats) : response);
+        } finally {
+            QueryStats.end();
+            if (headers && !response.isCommitted()) {
+                writeHeaders(response, stats); // small bodies are still buffered -> final numbers
+            }
+            if (stats.getQueries() > maxQueries || stats.getJdbcNanos() > maxDbNanos) {
+                log.warn("{} {} over query budget: {} queries, {} ms JDBC time (budget {} queries, {} ms)",
+                        request.getMethod(), request.getRequestURI(), stats.getQueries(), TimeUnit.NANOSECONDS.toMillis(stats.getJdbcNanos()),
+                        maxQueries, TimeUnit.NANOSECONDS.toMillis(maxDbNanos));
+            }
+        }
+    }
+
+    private static void writeHeaders(HttpServletResponse response, QueryStats stats) {
+        response.setHeader(QUERY_COUNT_HEADER, Integer.toString(stats.getQueries()));
+        response.setHeader(DB_TIME_HEADER, Double.toString(Math.round(stats.getJdbcNanos() / 1_000.0) / 1_000.0));
+    }
+
+    // a body larger than the response buffer commits the headers while the handler is still running ->
+    // write the numbers so far right before that happens
+    private static final class StatsHeaderResponse extends OnCommittedResponseWrapper {
+        private final QueryStats stats;
+
+        private StatsHeaderResponse(HttpServletResponse response, QueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders((HttpServletResponse) getResponse(), stats);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.BlogManager.configs;
+
+import java.util.function.Supplier;
+
+// Number of JDBC statements and their execute time, for the current request (QueryBudgetFilter) or a measure(...) block.
+// Filled by QueryStatsListener for everything that goes through Hibernate; plain JdbcTemplate calls are not seen.
+public final class QueryStats {
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private int queries;
+    private long jdbcNanos;
+
+    private QueryStats() {
+    }
+
+    // runs the action in its own scope and returns what it executed; an enclosing scope still sees the statements
+    public static <T> Measured<T> measure(Supplier<T> action) {
+        QueryStats outer = CURRENT.get();
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        try {
+            return new Measured<>(action.get(), stats);
+        } finally {
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                outer.queries += stats.queries;
+                outer.jdbcNanos += stats.jdbcNanos;
+                CURRENT.set(outer);
+            }
+        }
+    }
+
+    static QueryStats begin() {
+        QueryStats stats = new QueryStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static void record(long nanos) {
+        QueryStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.queries++;
+            stats.jdbcNanos += nanos;
+        }
+    }
+
+    public int getQueries() {
+        return queries;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public record Measured<T>(T result, QueryStats stats) {
+    }
+}
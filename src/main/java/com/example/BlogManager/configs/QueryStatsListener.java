@@ -0,0 +1,29 @@
+package com.example.BlogManager.configs;
+
+import org.hibernate.SessionEventListener;
+
+// Hibernate creates one per session (hibernate.session.events.auto), and a session is used by one thread at a time,
+// so the start timestamp can be a plain field. Each executed statement or batch counts as one query.
+public class QueryStatsListener implements SessionEventListener {
+    private long executeStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        QueryStats.record(System.nanoTime() - executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        QueryStats.record(System.nanoTime() - executeStart);
+    }
+}
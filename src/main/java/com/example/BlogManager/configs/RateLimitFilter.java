@@ -0,0 +1,136 @@
+package com.example.BlogManager.configs;
+
+import com.example.BlogManager.response.ApiResponseWrapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+// Per-client token buckets, runs right after JwtFilter (see AuthFilterConfig).
+// /api/user/auth/** (and anything without an authenticated user) is keyed on the client IP, everything else on the userId.
+// Buckets live in bounded Caffeine caches (striped hash table, evicted when idle), one pair per rule.
+// A request that is allowed costs a rule scan, a cache hit and one CAS -> no allocation on the fast path.
+// Not a @Component on purpose: Spring Boot would also register it as a plain servlet filter, outside the security chain.
+// The client IP is request.getRemoteAddr(); behind a proxy set server.forward-headers-strategy so that's the real client.
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final String AUTH_PATH_PREFIX = "/api/user/auth/";
+
+    private final List<LimitedRoute> routes;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier nanoClock;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.routes = properties.rules().stream()
+                .map(rule -> new LimitedRoute(rule, properties, meterRegistry, nanoClock))
+                .toList();
+        this.objectMapper = objectMapper;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+        LimitedRoute route = match(request.getMethod(), path);
+        if (route == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String user = path.startsWith(AUTH_PATH_PREFIX) ? null : authenticatedUser();
+        TokenBucket bucket = user != null
+                ? route.byUser.get(user, route.newBucket)
+                : route.byIp.get(request.getRemoteAddr(), route.newBucket);
+        long waitNanos = bucket.tryAcquire(nanoClock.getAsLong());
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        route.rejected.increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ApiResponseWrapper<Void>(LocalDateTime.now(),
+                HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests", "rate limit exceeded, retry in " + retryAfterSeconds + "s", null));
+    }
+
+    private LimitedRoute match(String method, String path) {
+        for (LimitedRoute route : routes) { // plain loop, no iterator/stream on the hot path
+            if (route.matches(method, path)) return route;
+        }
+        return null;
+    }
+
+    private static String authenticatedUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static final class LimitedRoute {
+        private final String method; // null = any
+        private final String path;
+        private final boolean prefix;
+        private final Cache<String, TokenBucket> byUser;
+        private final Cache<String, TokenBucket> byIp;
+        private final Function<String, TokenBucket> newBucket; // created once, so a cache hit doesn't allocate a lambda
+        private final Counter rejected;
+
+        private LimitedRoute(RateLimitProperties.Rule rule, RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+            if (rule.path() == null || rule.limit() < 1 || rule.period() == null) {
+                throw new IllegalArgumentException("rate limit rule needs a path, a limit >= 1 and a period: " + rule);
+            }
+            this.method = rule.method() == null || rule.method().isBlank() ? null : rule.method();
+            this.prefix = rule.path().endsWith("/**");
+            this.path = prefix ? rule.path().substring(0, rule.path().length() - 2) : rule.path();
+            // an evicted bucket comes back full -> never evict before it could have refilled on its own
+            Duration idle = properties.idleTtl().compareTo(rule.period()) > 0 ? properties.idleTtl() : rule.period();
+            this.byUser = newCache(properties.maxKeys(), idle);
+            this.byIp = newCache(properties.maxKeys(), idle);
+            this.newBucket = key -> new TokenBucket(rule.limit(), rule.period(), nanoClock.getAsLong());
+            this.rejected = Counter.builder("http.server.requests.rate.limited")
+                    .tag("rule", (method == null ? "" : method + " ") + rule.path())
+                    .register(meterRegistry);
+        }
+
+        private boolean matches(String requestMethod, String requestPath) {
+            if (method != null && !method.equalsIgnoreCase(requestMethod)) return false;
+            return prefix ? requestPath.startsWith(path) : requestPath.equals(path);
+        }
+
+        private static Cache<String, TokenBucket> newCache(long maxKeys, Duration idle) {
+            return Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(idle)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.BlogManager.configs;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+// app.rate-limit.* -> see RateLimitFilter. Rules are checked in order, the first match decides the limit
+@ConfigurationProperties("app.rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("100000") long maxKeys, // buckets kept per rule and key type (user / ip)
+                                  @DefaultValue("PT10M") Duration idleTtl, // idle buckets are dropped after this (at least the rule's period)
+                                  @DefaultValue List<Rule> rules) {
+
+    // method empty = any method; path is exact or a prefix ending in /** ; `limit` requests per `period`, burst = limit
+    public record Rule(String method, String path, int limit, Duration period) {
+    }
+}
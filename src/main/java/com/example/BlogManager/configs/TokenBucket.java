@@ -0,0 +1,32 @@
+package com.example.BlogManager.configs;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Lock-free token bucket of `capacity` tokens refilling fully over `period`.
+// Stored as a single long, the time at which the bucket would be full again (GCRA form of a token bucket):
+// taking a token pushes it by one refill interval, and the bucket is empty once it is more than
+// (capacity - 1) intervals ahead of now. One CAS per request, no allocation, no refill bookkeeping.
+final class TokenBucket {
+    private final long intervalNanos; // time to regain one token
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(int capacity, Duration period, long now) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be at least 1");
+        this.intervalNanos = Math.max(1, period.toNanos() / capacity);
+        this.burstNanos = intervalNanos * (capacity - 1);
+        this.fullAt = new AtomicLong(now);
+    }
+
+    // 0 when a token was taken, otherwise the nanos until the next one is available. `now` is System.nanoTime()
+    long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long start = current - now > 0 ? current : now; // overflow-safe max for nanoTime values
+            long wait = start - now - burstNanos;
+            if (wait > 0) return wait;
+            if (fullAt.compareAndSet(current, start + intervalNanos)) return 0;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.BlogManager.configs;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+// Only active with spring.threads.virtual.enabled=true (Tomcat + @Async then run every request on a virtual thread).
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    // static -> registered before the DataSource bean is created
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BoundedDataSource)) {
+                    int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                    return new BoundedDataSource(dataSource, poolSize,
+                            environment.getProperty("app.datasource.guard.max-waiters", Integer.class, 1000),
+                            environment.getProperty("app.datasource.guard.acquire-timeout-ms", Long.class, 2000L));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.BlogManager.configs;
+
+import com.example.BlogManager.response.ApiResponseWrapperConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+    private final ObjectMapper objectMapper;
+
+    public WebMvcConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    // ahead of the Jackson converter so every ApiResponseWrapper (controllers and GlobalExceptionHandler) goes through it
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new ApiResponseWrapperConverter(objectMapper));
+    }
+}
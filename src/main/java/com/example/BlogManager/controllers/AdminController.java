@@ -0,0 +1,47 @@
+package com.example.BlogManager.controllers;
+
+import com.example.BlogManager.dto.ImportReport;
+import com.example.BlogManager.response.ApiResponseWrapper;
+import com.example.BlogManager.services.BlogImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    private final BlogImportService blogImportService;
+
+    public AdminController(BlogImportService blogImportService) {
+        this.blogImportService = blogImportService;
+    }
+
+    //Only Admins -> body is NDJSON (users, blogs with their comments), see BlogImportService for the line formats
+    //on failure the report carries the jobId and last committed line, resend the same body with that jobId to resume
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponseWrapper<ImportReport>> importNdjson(HttpServletRequest request,
+                                                                         @RequestParam(required = false) String jobId,
+                                                                         @RequestParam(required = false) Integer batchSize,
+                                                                         @AuthenticationPrincipal UserDetails userDetails) throws IOException, InterruptedException {
+        ImportReport report = blogImportService.importNdjson(request.getInputStream(), jobId, batchSize, userDetails.getUsername());
+        if (report == null) {
+            ApiResponseWrapper<ImportReport> response = new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.UNAUTHORIZED.value(), "Only Admins can import", null, null);
+
+            return new ResponseEntity<>(response, HttpStatus.valueOf(401));
+        }
+        if (!report.isCompleted()) {
+            log.error("import {} stopped at line {}", report.getJobId(), report.getLastCommittedLine());
+            return new ResponseEntity<>(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.INTERNAL_SERVER_ERROR.value(), null,
+                    "Import stopped, resend with jobId=" + report.getJobId() + " to resume", report), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        return ResponseEntity.ok(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.OK.value(), "Import finished", null, report));
+    }
+}
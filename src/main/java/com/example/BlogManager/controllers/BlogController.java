@@ -1,19 +1,31 @@
 package com.example.BlogManager.controllers;
 
+import com.example.BlogManager.dto.BlogDetail;
+import com.example.BlogManager.dto.BlogVersion;
 import com.example.BlogManager.exceptions.ResourceNotFoundCustomException;
 import com.example.BlogManager.objects.Blog;
 import com.example.BlogManager.response.ApiResponseWrapper;
+import com.example.BlogManager.services.BlogBulkService;
+import com.example.BlogManager.services.BlogExportService;
+import com.example.BlogManager.services.BlogSearchService;
 import com.example.BlogManager.services.BlogService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Optional;
 
 @Slf4j
 @RestController
@@ -21,10 +33,17 @@ import java.util.Map;
 public class BlogController {
     //    @Autowired -> old
     private final BlogService blogService;
+    private final BlogBulkService blogBulkService;
+    private final BlogSearchService blogSearchService;
+    private final BlogExportService blogExportService;
 
     //constructor injection -> new
-    public BlogController(BlogService blogService) {
+    public BlogController(BlogService blogService, BlogBulkService blogBulkService, BlogSearchService blogSearchService,
+                          BlogExportService blogExportService) {
         this.blogService = blogService;
+        this.blogBulkService = blogBulkService;
+        this.blogSearchService = blogSearchService;
+        this.blogExportService = blogExportService;
     }
 
 
@@ -32,19 +51,77 @@ public class BlogController {
     public ResponseEntity<ApiResponseWrapper<Blog>> createBlog(@RequestBody Blog blog, @AuthenticationPrincipal UserDetails userDetails) {
         Blog savedBlog = blogService.save(blog, userDetails.getUsername());
 //        System.out.println("created -> savedBlog " + savedBlog.getId());
-        log.info("created -> savedBlog " + savedBlog.getId());
+        log.info("created -> savedBlog {}", savedBlog.getId());
 
         return new ResponseEntity<>(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.CREATED.value(), "Successfully Created!", null, savedBlog), HttpStatusCode.valueOf(HttpStatus.CREATED.value()));
     }
 
+    //body is a JSON array of blogs, streamed and inserted in batches -> one NDJSON line per item (index + id or error),
+    //in input order, written as each batch commits
+    @PostMapping("/bulk")
+    public ResponseEntity<StreamingResponseBody> createBlogs(HttpServletRequest request,
+                                                             @RequestParam(required = false) Integer batchSize,
+                                                             @AuthenticationPrincipal UserDetails userDetails) throws IOException {
+        StreamingResponseBody body = blogBulkService.saveAll(request.getInputStream(), batchSize, userDetails.getUsername());
+        log.info("bulk create started by {}", userDetails.getUsername());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    //full-text search over title and content, best matches first -> follow nextCursor for the next page
+    //Admins search every blog, other users only their own
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponseWrapper<Map<String, Object>>> searchBlogs(@RequestParam String q,
+                                                                               @RequestParam(required = false) String cursor,
+                                                                               @RequestParam(defaultValue = "10") int size,
+                                                                               @AuthenticationPrincipal UserDetails userDetails) {
+        Map<String, Object> hits = blogSearchService.search(q, cursor, size, userDetails.getUsername());
+        return ResponseEntity.ok(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.OK.value(), "search results returned", null, hits));
+    }
+
+    //blogs of the logged in user as summaries, newest first -> follow nextCursor for the next page
+    @GetMapping("/mine")
+    public ResponseEntity<ApiResponseWrapper<Map<String, Object>>> getMyBlogs(@RequestParam(required = false) String cursor,
+                                                                              @RequestParam(defaultValue = "10") int size,
+                                                                              @AuthenticationPrincipal UserDetails userDetails) {
+        Map<String, Object> blogs = blogService.findMine(cursor, size, userDetails.getUsername());
+        return ResponseEntity.ok(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.OK.value(), "blogs of " + userDetails.getUsername() + " returned", null, blogs));
+    }
+
+    //Only Admins -> every blog with its comments, one JSON object per line, streamed straight from the db
+    @GetMapping("/export")
+    public ResponseEntity<?> exportBlogs(@AuthenticationPrincipal UserDetails userDetails) {
+        StreamingResponseBody body = blogExportService.export(userDetails.getUsername());
+        if (body == null) {
+            ApiResponseWrapper<Void> response = new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.UNAUTHORIZED.value(), "Only Admins can export blogs", null, null);
+
+            return new ResponseEntity<>(response, HttpStatus.valueOf(401));
+        }
+        log.info("blog export started by {}", userDetails.getUsername());
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=blogs.ndjson")
+                .body(body);
+    }
+
     //fetches blog under the logged in user_id
+    //sends a strong ETag and Last-Modified; a matching If-None-Match (or, without one, If-Modified-Since) -> 304 from a
+    //version-only query, no content is loaded
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponseWrapper<Blog>> getBlog(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<ApiResponseWrapper<BlogDetail>> getBlog(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails, WebRequest webRequest) {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            Optional<BlogVersion> current = blogService.currentVersion(id, userDetails.getUsername());
+            if (current.isPresent() && webRequest.checkNotModified(current.get().etag(), current.get().lastModified())) {
+                return null; // 304 + ETag/Last-Modified already set on the response
+            }
+        }
         return blogService.findById(id, userDetails.getUsername()).map(blog -> {
             String message = "Fetched blog with id: {}" + id;
 //            System.out.println(message);
             log.info(message);
-            return new ResponseEntity<>(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.OK.value(), message, null, blog), HttpStatusCode.valueOf(200));
+            return okWithValidators(BlogVersion.of(blog))
+                    .body(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.OK.value(), message, null, blog));
         }).orElseGet(() -> {
             String message = "Blog not found with id: {}" + id + " and under the user logged in " + userDetails.getUsername();
 //            System.out.println(message);
@@ -58,10 +135,25 @@ public class BlogController {
     public ResponseEntity<ApiResponseWrapper<Map<String, Object>>> getAllBlogs(@RequestParam(defaultValue = "0") int page,
                                                                                @RequestParam(defaultValue = "3") int size,
                                                                                @RequestParam(defaultValue = "title") String sortBy,
+                                                                               @RequestParam(required = false) String cursor,
+                                                                               @RequestParam(defaultValue = "false") boolean approximateCount,
+                                                                               @RequestParam(defaultValue = "full") String view,
                                                                                @AuthenticationPrincipal UserDetails userDetails) {
         // PAGES are index of pages (0 - indexes) and size is no. of blogs in each page
         //total items is total no. of all the blogs in the db
-        Map<String, Object> blogs = blogService.findAll(page, size, sortBy, userDetails.getUsername());
+        // cursor mode -> pass cursor (empty for the first page) and follow nextCursor, page is ignored
+        // view=summary -> id, title, author, comment count and a content snippet instead of the full blog
+        Map<String, Object> blogs;
+        if (view.equals("summary")) {
+            if (cursor != null) throw new IllegalArgumentException("view=summary supports page/size paging only");
+            blogs = blogService.findAllSummaries(page, size, sortBy, userDetails.getUsername());
+        } else if (view.equals("full")) {
+            blogs = cursor != null
+                    ? blogService.findAllByCursor(cursor, size, sortBy, approximateCount, userDetails.getUsername())
+                    : blogService.findAll(page, size, sortBy, userDetails.getUsername());
+        } else {
+            throw new IllegalArgumentException("unknown view: " + view + ", expected full or summary");
+        }
         if (blogs == null) {
             ApiResponseWrapper<Map<String, Object>> response = new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.UNAUTHORIZED.value(), "Only Admins can access all blogs", null, null);
 
@@ -91,38 +183,48 @@ public class BlogController {
 
     //Only the user who created the blog can update
     @PutMapping("/{id}")
-    public ResponseEntity<ApiResponseWrapper<Blog>> updateBlog(@PathVariable Long id, @RequestBody Blog updatedBlog, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<ApiResponseWrapper<BlogDetail>> updateBlog(@PathVariable Long id, @RequestBody Blog updatedBlog, @AuthenticationPrincipal UserDetails userDetails,
+                                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        Blog blog = blogService.updateBlog(id, updatedBlog, userDetails.getUsername());
+        Blog blog = blogService.updateBlog(id, updatedBlog, userDetails.getUsername(), ifMatch);
         if (blog == null) {
-            ApiResponseWrapper<Blog> response = new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.UNAUTHORIZED.value(), "Only the user who created the blog can update it", null, null);
+            ApiResponseWrapper<BlogDetail> response = new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.UNAUTHORIZED.value(), "Only the user who created the blog can update it", null, null);
 
             return new ResponseEntity<>(response, HttpStatus.valueOf(401));
         }
         String message = "Fully updated blog with id: {}" + id;
 //        System.out.println(message);
         log.info(message);
-        return ResponseEntity.ok(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.OK.value(), null, message, blog));
+        BlogDetail detail = blogService.detail(blog);
+        return okWithValidators(BlogVersion.of(detail))
+                .body(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.OK.value(), null, message, detail));
 
     }
 
     //Only the user who created the blog can update
     @PatchMapping("/{id}")
-    public ResponseEntity<ApiResponseWrapper<Blog>> partiallyUpdateBlog(@PathVariable Long id, @RequestBody Map<String, Object> patchRequest, @AuthenticationPrincipal UserDetails userDetails) {
+    public ResponseEntity<ApiResponseWrapper<BlogDetail>> partiallyUpdateBlog(@PathVariable Long id, @RequestBody Map<String, Object> patchRequest, @AuthenticationPrincipal UserDetails userDetails,
+                                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        Blog blog = blogService.partialUpdate(id, patchRequest, userDetails.getUsername());
+        Blog blog = blogService.partialUpdate(id, patchRequest, userDetails.getUsername(), ifMatch);
 
         if (blog == null) {
-            ApiResponseWrapper<Blog> response = new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.UNAUTHORIZED.value(), "Only the user who created the blog can partial update it", null, null);
+            ApiResponseWrapper<BlogDetail> response = new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.UNAUTHORIZED.value(), "Only the user who created the blog can partial update it", null, null);
 
             return new ResponseEntity<>(response, HttpStatus.valueOf(401));
         }
         String message = "Blog partially updated blog with id: {}" + id;
 //        System.out.println(message);
         log.info(message);
-        return ResponseEntity.ok(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.OK.value(), null, message, blog));
+        BlogDetail detail = blogService.detail(blog);
+        return okWithValidators(BlogVersion.of(detail))
+                .body(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.OK.value(), null, message, detail));
 
     }
 
-
+    // ETag + Last-Modified of a single blog, the same validators a later conditional GET is checked against
+    private static ResponseEntity.BodyBuilder okWithValidators(BlogVersion version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(version.etag());
+        return version.updatedAt() == null ? response : response.lastModified(version.updatedAt());
+    }
 }
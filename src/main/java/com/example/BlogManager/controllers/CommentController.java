@@ -12,6 +12,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Slf4j
 @RestController
@@ -31,6 +32,16 @@ public class CommentController {
         return new ResponseEntity<>(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.CREATED.value(), "Successfully Created!", null, savedComment), HttpStatusCode.valueOf(HttpStatus.CREATED.value()));
     }
 
+    //paginated comments of a blog -> follow nextCursor (pass it as afterId) until it is null
+    @GetMapping("/blog/{blogId}")
+    public ResponseEntity<ApiResponseWrapper<Map<String, Object>>> getCommentsOfBlog(@PathVariable Long blogId,
+                                                                                    @RequestParam(required = false) Long afterId,
+                                                                                    @RequestParam(defaultValue = "20") int size,
+                                                                                    @AuthenticationPrincipal UserDetails userDetails) {
+        Map<String, Object> comments = commentsService.findByBlog(blogId, afterId, size, userDetails.getUsername());
+        return ResponseEntity.ok(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.OK.value(), "map of data returned", null, comments));
+    }
+
     //comment can be deleted either by the creator of the blog post OR by the creator of the comment only
     @DeleteMapping("/{commentId}")
     public ResponseEntity<ApiResponseWrapper<Void>> deleteComment(@PathVariable Long commentId, @AuthenticationPrincipal UserDetails userDetails) {
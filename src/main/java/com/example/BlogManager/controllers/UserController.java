@@ -37,7 +37,7 @@ public class UserController {
     }
 
     @PostMapping("/auth/register")
-    public ResponseEntity<ApiResponseWrapper> createNewUser(@Valid @RequestBody UserDTO user) throws Exception {
+    public ResponseEntity<ApiResponseWrapper> createNewUser(@Valid @RequestBody UserDTO user) {
         try {
             UserDTO savedUser = userService.register(user);
 
@@ -52,16 +52,16 @@ public class UserController {
                 return new ResponseEntity<>(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.CONFLICT.value(), "username already exists", message, savedUser.getRecommendedUsernames()), HttpStatusCode.valueOf(HttpStatus.CONFLICT.value()));
             }
 
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             log.error("exception caught in UserController", e);
-            throw new Exception(e);
+            throw e; // rethrown as is -> GlobalExceptionHandler maps it (429 when BCrypt is saturated, 503 without a connection)
         }
     }
 
     @PostMapping("/auth/login")
     public ResponseEntity<ApiResponseWrapper<String>> login(@RequestBody UserDTO loginRequest) throws Exception {
         String token = userService.login(loginRequest);
-        log.info("generated token for the username: {} is = {}", loginRequest.getUserId(), token);
+        log.info("generated token for the username: {}", loginRequest.getUserId()); // never the token itself
 //        System.out.println("generated token for the username: " + loginRequest.getUserId() + " is = " + token);
         return new ResponseEntity<>(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.OK.value(), "token generated", null, token), HttpStatusCode.valueOf(200));
     }
@@ -72,8 +72,7 @@ public class UserController {
         Optional<UserEntity> user = userService.findById(userId);
         if (user.isPresent()) {
             String message = "Fetched user with id: {}" + userId;
-            log.info(message);
-            System.out.println(message);
+            log.info("Fetched user with id: {}", userId);
             UserDTO ret = new UserDTO(user.get().getName(), userId, null, user.get().getUserType(), null);
             return new ResponseEntity<>(new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.OK.value(), message, null, ret), HttpStatusCode.valueOf(200));
         } else {
@@ -0,0 +1,5 @@
+package com.example.BlogManager.dto;
+
+// number of comments on one blog, e.g. the ones a user wrote there
+public record BlogCommentCount(long blogId, long comments) {
+}
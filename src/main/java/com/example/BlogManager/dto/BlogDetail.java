@@ -0,0 +1,39 @@
+package com.example.BlogManager.dto;
+
+import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.objects.Comment;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+// single-blog representation (GET/PUT/PATCH /api/blog/{id}): the blog row plus the first page of its comments,
+// commentsNextCursor continues with GET /api/comment/blog/{blogId}?afterId=.
+// BlogCache holds it without comments (null) -> one immutable instance is shared by all threads, and a new comment doesn't
+// invalidate it (commentCount follows with the next CommentCounter flush, which evicts); the page is added per response
+public record BlogDetail(Long id,
+                         Long version,
+                         String title,
+                         String content,
+                         @JsonIgnore String authorUserId, // owner check only
+                         Long commentCount,
+                         Instant updatedAt,
+                         List<Comment> comments,
+                         Long commentsNextCursor) implements Serializable {
+
+    // the cached form, also what BlogRepository.findDetailById selects
+    public BlogDetail(Long id, Long version, String title, String content, String authorUserId, Long commentCount, Instant updatedAt) {
+        this(id, version, title, content, authorUserId, commentCount, updatedAt, null, null);
+    }
+
+    // author must be initialized (it is after the owner check)
+    public static BlogDetail of(Blog blog) {
+        return new BlogDetail(blog.getId(), blog.getVersion(), blog.getTitle(), blog.getContent(),
+                blog.getUserEntity().getUserId(), blog.getCommentCount(), blog.getUpdatedAt());
+    }
+
+    public BlogDetail withComments(List<Comment> comments, Long commentsNextCursor) {
+        return new BlogDetail(id, version, title, content, authorUserId, commentCount, updatedAt, List.copyOf(comments), commentsNextCursor);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.BlogManager.dto;
+
+// one full-text search result -> same row shape as BlogSummary plus the relevance rank used for ordering
+public interface BlogSearchHit {
+    Long getId();
+
+    String getTitle();
+
+    String getAuthorUserId();
+
+    String getSnippet(); // first BlogSummary.SNIPPET_LENGTH characters of the content
+
+    Float getRank();
+}
@@ -0,0 +1,21 @@
+package com.example.BlogManager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// listing projection of a Blog -> no full content and no comments, only what a list row renders
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BlogSummary {
+    public static final int SNIPPET_LENGTH = 200;
+
+    private Long id;
+    private String title;
+    private String authorUserId;
+    private Long commentCount; // Blog.commentCount -> may lag new comments by one counter flush
+    private String snippet; // first SNIPPET_LENGTH characters of the content
+}
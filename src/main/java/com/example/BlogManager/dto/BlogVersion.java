@@ -0,0 +1,60 @@
+package com.example.BlogManager.dto;
+
+import com.example.BlogManager.objects.Comment;
+
+import java.time.Instant;
+import java.util.List;
+
+// everything the single-blog representation (BlogDetail) depends on: the row version, bumped on every edit, the
+// denormalized comment count, and a fingerprint of the embedded first page of comments (ids, versions, next cursor)
+// -> strong ETag from the blog row and an index-ordered id/version read, no content is loaded.
+// updatedAt (edits and comment count flushes) is the Last-Modified; it is second-granular in HTTP, the ETag is the exact one
+public record BlogVersion(long version, long commentCount, Instant updatedAt, long firstComments) {
+
+    // row part only (BlogRepository.findVersion), withFirstComments adds the page
+    public BlogVersion(long version, long commentCount, Instant updatedAt) {
+        this(version, commentCount, updatedAt, 0);
+    }
+
+    public static BlogVersion of(BlogDetail blog) {
+        List<CommentVersion> page = blog.comments() == null ? List.of() : blog.comments().stream()
+                .map(comment -> new CommentVersion(comment.getId(), comment.getVersion() == null ? 0 : comment.getVersion()))
+                .toList();
+        return new BlogVersion(blog.version() == null ? 0 : blog.version(), blog.commentCount() == null ? 0 : blog.commentCount(), blog.updatedAt())
+                .withFirstComments(page, blog.commentsNextCursor());
+    }
+
+    public BlogVersion withFirstComments(List<CommentVersion> page, Long nextCursor) {
+        long fingerprint = 0xcbf29ce484222325L;
+        for (CommentVersion comment : page) {
+            fingerprint = mix(fingerprint, comment.id());
+            fingerprint = mix(fingerprint, comment.version());
+        }
+        fingerprint = mix(fingerprint, nextCursor == null ? 0 : nextCursor);
+        return new BlogVersion(version, commentCount, updatedAt, fingerprint);
+    }
+
+    public String etag() {
+        return "\"" + version + "." + commentCount + "." + Long.toHexString(firstComments) + "\"";
+    }
+
+    // epoch millis for WebRequest.checkNotModified, -1 (no If-Modified-Since check) when the row has no timestamp
+    public long lastModified() {
+        return updatedAt == null ? -1 : updatedAt.toEpochMilli();
+    }
+
+    // If-Match semantics: "*" or any listed strong tag equal to ours; weak tags (W/"..") never match
+    public boolean matchesIfMatch(String ifMatch) {
+        if (ifMatch.trim().equals("*")) return true;
+        String etag = etag();
+        for (String candidate : ifMatch.split(",")) {
+            if (candidate.trim().equals(etag)) return true;
+        }
+        return false;
+    }
+
+    private static long mix(long hash, long value) {
+        hash = (hash ^ value) * 0x100000001b3L; // FNV-1a step over the whole long
+        return hash ^ (hash >>> 29);
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.BlogManager.dto;
+
+// id + version of a comment, what the ETag of a blog detail needs from its embedded comments
+public record CommentVersion(long id, long version) {
+}
@@ -0,0 +1,28 @@
+package com.example.BlogManager.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// outcome of POST /api/admin/import; on failure resend the same stream with the same jobId to resume after lastCommittedLine
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ImportReport {
+    private String jobId;
+    private boolean completed;
+    private long linesRead;
+    private long linesSkipped; // already committed by an earlier attempt of this job
+    private long linesRejected;
+    private long lastCommittedLine;
+    private long usersCreated;
+    private long blogsCreated;
+    private long commentsCreated;
+    private long elapsedMillis;
+    private double linesPerSecond;
+    private List<String> rejectedLines = new ArrayList<>(); // first few lines that could not be parsed, by line number
+    private String error;
+}
@@ -0,0 +1,24 @@
+package com.example.BlogManager.dto;
+
+import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.objects.UserType;
+
+// what PrincipalCache keeps per user: immutable, so no caller can change the role or password hash that
+// later requests are authenticated against
+public record UserPrincipal(Long id, String userId, String password, UserType userType) {
+
+    public static UserPrincipal of(UserEntity user) {
+        return new UserPrincipal(user.getId(), user.getUserId(), user.getPassword(), user.getUserType());
+    }
+
+    // a new detached UserEntity per call with only these fields set -> enough to reference the user from a blog/comment
+    // and for the id/role checks, and whatever the caller does to it stays out of the cache
+    public UserEntity toEntity() {
+        UserEntity user = new UserEntity();
+        user.setId(id);
+        user.setUserId(userId);
+        user.setPassword(password);
+        user.setUserType(userType);
+        return user;
+    }
+}
@@ -1,8 +1,12 @@
 package com.example.BlogManager.exceptions;
 
 import com.example.BlogManager.response.ApiResponseWrapper;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -17,6 +21,44 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ApiResponseWrapper<Void>> handleBadRequest(IllegalArgumentException ex) {
+        ApiResponseWrapper<Void> response = new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.BAD_REQUEST.value(), "Bad Request", ex.getMessage(), null);
+
+        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    }
+
+    // If-Match did not match the current ETag -> the client has to re-read the blog before writing
+    @ExceptionHandler(PreconditionFailedCustomException.class)
+    public ResponseEntity<ApiResponseWrapper<Void>> handlePreconditionFailed(PreconditionFailedCustomException ex) {
+        ApiResponseWrapper<Void> response = new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.PRECONDITION_FAILED.value(), "Precondition Failed", ex.getMessage(), null);
+
+        return new ResponseEntity<>(response, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // someone else updated the row between our read and our versioned UPDATE -> re-read and retry
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiResponseWrapper<Void>> handleConflict(OptimisticLockingFailureException ex) {
+        ApiResponseWrapper<Void> response = new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.CONFLICT.value(), "Conflict", "the resource was modified concurrently, re-read it and retry", null);
+
+        return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(TooManyRequestsCustomException.class)
+    public ResponseEntity<ApiResponseWrapper<Void>> handleTooManyRequests(TooManyRequestsCustomException ex) {
+        ApiResponseWrapper<Void> response = new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.TOO_MANY_REQUESTS.value(), "Too Many Requests", ex.getMessage(), null);
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(response);
+    }
+
+    // no database connection available in time (pool saturated) -> let the client back off instead of a 500
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<ApiResponseWrapper<Void>> handleDatabaseUnavailable(RuntimeException ex) {
+        ApiResponseWrapper<Void> response = new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable", ex.getMessage(), null);
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(response);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponseWrapper<Void>> handleGeneralError(Exception ex) {
         ApiResponseWrapper<Void> response = new ApiResponseWrapper<>(LocalDateTime.now(), HttpStatus.INTERNAL_SERVER_ERROR.value(), "Internal Server Error", ex.getMessage(), null);
@@ -0,0 +1,7 @@
+package com.example.BlogManager.exceptions;
+
+public class PreconditionFailedCustomException extends RuntimeException {
+    public PreconditionFailedCustomException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.BlogManager.exceptions;
+
+public class TooManyRequestsCustomException extends RuntimeException {
+    public TooManyRequestsCustomException(String message) {
+        super(message);
+    }
+}
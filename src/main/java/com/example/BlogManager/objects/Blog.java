@@ -8,20 +8,38 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.util.List;
 
-@Table(name = "blogs")
+@Table(name = "blogs", indexes = {
+        @Index(name = "idx_blogs_title_id", columnList = "title, id"), // keyset pagination on (title, id)
+        @Index(name = "idx_blogs_user_id_id", columnList = "user_id, id"), // GET /api/blog/mine, an author's blogs newest first
+        @Index(name = "idx_blogs_updated_at", columnList = "updated_at") // BlogSearchIndex catch-up after a snapshot
+})
 @Entity
+@DynamicUpdate // UPDATE only the changed columns (not the whole row) + the version check
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Blog {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // sequence (not IDENTITY) so Hibernate can batch inserts; ids are pre-allocated in blocks of 50
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "blogs_seq")
+    @SequenceGenerator(name = "blogs_seq", sequenceName = "blogs_seq", allocationSize = 50)
     private Long id;
 
+    // bumped by Hibernate on every update -> part of the ETag, and optimistic locking for concurrent writes
+    @Version
+    @ColumnDefault("0") // existing rows and JDBC inserts (admin import) start at 0
+    @Column(nullable = false)
+    private Long version;
+
     private String title;
 
     @Column(length = 5000)
@@ -34,9 +52,22 @@ public class Blog {
     private UserEntity userEntity;
 
     @OneToMany(mappedBy = "blog", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50) // a listed page loads comments of up to 50 blogs in one IN (...) query instead of one query per blog
     @JsonManagedReference(value = "blog-comments")  // This manages serialization of the child list
     private List<Comment> comments;
 
+    // denormalized count for listings, maintained by CommentCounter (batched deltas, not per-comment row updates).
+    // Hibernate never writes it -> entity updates can't overwrite a concurrent flush
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Long commentCount;
+
+    // last insert/update of the row: set by Hibernate on every write, by the column default for JDBC inserts (bulk, import)
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(nullable = false)
+    private Instant updatedAt;
+
     public Blog(String title, String content) {
         this.title = title;
         this.content = content;
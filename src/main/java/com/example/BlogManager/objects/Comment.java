@@ -6,9 +6,14 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_blog_id_id", columnList = "blog_id, id") // per-blog keyset pagination
+})
 @Entity
+@DynamicUpdate
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,6 +23,11 @@ public class Comment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     private String content;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,27 @@
+package com.example.BlogManager.objects;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// progress of an admin NDJSON import -> lastLine is committed in the same transaction as the rows it covers
+@Table(name = "import_checkpoints")
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportCheckpoint {
+    @Id
+    private String jobId;
+
+    private long lastLine;
+
+    private LocalDateTime updatedAt;
+}
@@ -1,9 +1,12 @@
 package com.example.BlogManager.objects;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -13,15 +16,21 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
+@Slf4j
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
     private final UserDetailsService userDetailsService;
+    private final Timer validTokenTimer;
+    private final Timer invalidTokenTimer;
 
     // Inject UserDetailsService to load user roles/permissions from DB
-    public JwtFilter(UserDetailsService userDetailsService) {
+    public JwtFilter(UserDetailsService userDetailsService, MeterRegistry meterRegistry) {
         this.userDetailsService = userDetailsService;
+        this.validTokenTimer = Timer.builder("jwt.validation").tag("outcome", "valid").publishPercentileHistogram().register(meterRegistry);
+        this.invalidTokenTimer = Timer.builder("jwt.validation").tag("outcome", "invalid").publishPercentileHistogram().register(meterRegistry);
     }
 
     @Override
@@ -37,11 +46,14 @@ public class JwtFilter extends OncePerRequestFilter {
         // 1. Check if token exists
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             token = authHeader.substring(7);
+            long start = System.nanoTime();
             try {
                 username = JwtUtil.validateTokenAndGetUsername(token);
+                validTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             } catch (Exception e) {
+                invalidTokenTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
                 // Token invalid - we ignore it and let Spring Security handle the 403 later
-                System.out.println("Token validation failed: " + e.getMessage());
+                log.debug("Token validation failed: {}", e.getMessage());
             }
         }
 
@@ -1,10 +1,93 @@
 package com.example.BlogManager.repositories;
 
+import com.example.BlogManager.dto.BlogDetail;
+import com.example.BlogManager.dto.BlogSearchHit;
+import com.example.BlogManager.dto.BlogSummary;
+import com.example.BlogManager.dto.BlogVersion;
 import com.example.BlogManager.objects.Blog;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface BlogRepository extends JpaRepository<Blog, Long> {
-    Optional<Blog> findByUserEntityIdAndId(Long user_id, Long blogId); // find a blog which has a long blog id and the specific long user_id
+    // detail view + BlogCache source -> one row with the author's userId, no comments and no entity to keep managed
+    @Query("select new com.example.BlogManager.dto.BlogDetail(b.id, b.version, b.title, b.content, u.userId, b.commentCount, b.updatedAt) "
+            + "from Blog b join b.userEntity u where b.id = :id")
+    Optional<BlogDetail> findDetailById(@Param("id") Long id);
+
+    // conditional GET / If-Match: the ETag inputs only, restricted to the owner like findById(id, username)
+    @Query("select new com.example.BlogManager.dto.BlogVersion(b.version, b.commentCount, b.updatedAt) "
+            + "from Blog b join b.userEntity u where b.id = :id and u.userId = :userId")
+    Optional<BlogVersion> findVersion(@Param("id") Long id, @Param("userId") String userId);
+
+    // keyset (seek) pagination -> callers pass PageRequest.of(0, size); Slice means no COUNT(*) query
+    @Query("select b from Blog b where b.id > :afterId order by b.id asc")
+    Slice<Blog> findPageAfterId(@Param("afterId") long afterId, Pageable pageable);
+
+    // BlogSearchIndex warm-up after a snapshot: every blog id (primary key only) and the blogs written since the snapshot
+    @Query("select b.id from Blog b where b.id > :afterId order by b.id asc")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select b from Blog b where b.updatedAt >= :since and b.id > :afterId order by b.id asc")
+    Slice<Blog> findPageChangedSince(@Param("since") Instant since, @Param("afterId") long afterId, Pageable pageable);
+
+    // ids of an author's blogs (idx_blogs_user_id_id), e.g. to evict them from caches before the author is deleted
+    @Query("select b.id from Blog b where b.userEntity.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    @Query("select b from Blog b where b.title is not null order by b.title asc, b.id asc")
+    Slice<Blog> findFirstTitledPage(Pageable pageable);
+
+    @Query("select b from Blog b where b.title > :title or (b.title = :title and b.id > :afterId) order by b.title asc, b.id asc")
+    Slice<Blog> findTitledPageAfter(@Param("title") String title, @Param("afterId") long afterId, Pageable pageable);
+
+    // blogs without a title are served after all titled ones, ordered by id
+    @Query("select b from Blog b where b.title is null and b.id > :afterId order by b.id asc")
+    Slice<Blog> findUntitledPageAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    // selects only the summary columns; the content is cut to the snippet inside the database
+    @Query(value = "select new com.example.BlogManager.dto.BlogSummary(b.id, b.title, u.userId, b.commentCount, substring(b.content, 1, "
+            + BlogSummary.SNIPPET_LENGTH + ")) from Blog b join b.userEntity u",
+            countQuery = "select count(b) from Blog b")
+    Page<BlogSummary> findSummaries(Pageable pageable);
+
+    // an author's blogs newest first, keyset on (user_id, id) -> backward range scan of idx_blogs_user_id_id.
+    // the author is matched by the principal's userId in the same statement, no separate user lookup
+    @Query("select new com.example.BlogManager.dto.BlogSummary(b.id, b.title, u.userId, b.commentCount, substring(b.content, 1, "
+            + BlogSummary.SNIPPET_LENGTH + ")) from Blog b join b.userEntity u where u.userId = :userId and b.id < :beforeId order by b.id desc")
+    Slice<BlogSummary> findPageByAuthorBefore(@Param("userId") String userId, @Param("beforeId") long beforeId, Pageable pageable);
+
+    // planner statistics instead of an exact COUNT(*); refreshed by autovacuum/ANALYZE
+    @Query(value = "SELECT GREATEST(reltuples, 0)::bigint FROM pg_class WHERE relname = 'blogs'", nativeQuery = true)
+    Long estimateRowCount();
+
+    // full-text search on the generated blogs.search_vector column (GIN index, see PostgresSchemaInitializer).
+    // ranked keyset pagination on (rank desc, id desc); callers ask for size + 1 rows to know whether there is a next page.
+    // authorId = users.id to search one author's blogs only, 0 for every author
+    String SEARCH_SELECT = "SELECT b.id AS id, b.title AS title, u.user_id AS authorUserId, left(b.content, "
+            + BlogSummary.SNIPPET_LENGTH + ") AS snippet, ts_rank(b.search_vector, q) AS rank "
+            + "FROM blogs b JOIN users u ON u.id = b.user_id, websearch_to_tsquery('english', :query) q "
+            + "WHERE b.search_vector @@ q AND (:authorId = 0 OR b.user_id = :authorId) ";
+
+    @Query(value = SEARCH_SELECT + "ORDER BY rank DESC, b.id DESC LIMIT :limit", nativeQuery = true)
+    List<BlogSearchHit> searchFirstPage(@Param("query") String query, @Param("authorId") long authorId, @Param("limit") int limit);
+
+    @Query(value = SEARCH_SELECT + "AND (ts_rank(b.search_vector, q) < CAST(:rank AS real) "
+            + "OR (ts_rank(b.search_vector, q) = CAST(:rank AS real) AND b.id < :afterId)) "
+            + "ORDER BY rank DESC, b.id DESC LIMIT :limit", nativeQuery = true)
+    List<BlogSearchHit> searchPageAfter(@Param("query") String query, @Param("authorId") long authorId, @Param("rank") float rank,
+                                        @Param("afterId") long afterId, @Param("limit") int limit);
+
+    // result rows for ids found by the in-process BlogSearchIndex; rank is filled in by the caller
+    @Query("select b.id as id, b.title as title, u.userId as authorUserId, substring(b.content, 1, "
+            + BlogSummary.SNIPPET_LENGTH + ") as snippet, cast(0 as float) as rank from Blog b join b.userEntity u where b.id in :ids")
+    List<BlogSearchHit> findSearchRowsByIds(@Param("ids") Collection<Long> ids);
 }
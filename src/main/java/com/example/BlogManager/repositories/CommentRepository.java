@@ -1,7 +1,27 @@
 package com.example.BlogManager.repositories;
 
+import com.example.BlogManager.dto.BlogCommentCount;
+import com.example.BlogManager.dto.CommentVersion;
 import com.example.BlogManager.objects.Comment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    // keyset page of one blog's comments, served by the (blog_id, id) index; PageRequest.of(0, size) -> no COUNT(*)
+    @Query("select c from Comment c where c.blog.id = :blogId and c.id > :afterId order by c.id asc")
+    Slice<Comment> findPageByBlogIdAfter(@Param("blogId") Long blogId, @Param("afterId") long afterId, Pageable pageable);
+
+    // ETag input of the comments a blog detail embeds: same order as findPageByBlogIdAfter, no content
+    @Query("select new com.example.BlogManager.dto.CommentVersion(c.id, c.version) from Comment c where c.blog.id = :blogId order by c.id asc")
+    List<CommentVersion> findVersionsByBlogId(@Param("blogId") Long blogId, Pageable pageable);
+
+    // a user's comments on other users' blogs, per blog -> what deleting the user (cascade) takes off their comment_count
+    @Query("select new com.example.BlogManager.dto.BlogCommentCount(c.blog.id, count(c)) from Comment c "
+            + "where c.userEntity.id = :userId and c.blog.userEntity.id <> :userId group by c.blog.id")
+    List<BlogCommentCount> countByUserOnOtherBlogs(@Param("userId") Long userId);
 }
@@ -0,0 +1,7 @@
+package com.example.BlogManager.repositories;
+
+import com.example.BlogManager.objects.ImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, String> {
+}
@@ -2,11 +2,19 @@ package com.example.BlogManager.repositories;
 
 import com.example.BlogManager.objects.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
     boolean existsByUserId(String userId);
 
     Optional<UserEntity> findByUserId(String userId);
+
+    // which of the candidates are already taken, in one round-trip on the unique user_id index
+    @Query("select u.userId from UserEntity u where u.userId in :candidates")
+    List<String> findTakenUserIds(@Param("candidates") Collection<String> candidates);
 }
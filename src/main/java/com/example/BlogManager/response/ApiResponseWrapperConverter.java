@@ -0,0 +1,126 @@
+package com.example.BlogManager.response;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Writes ApiResponseWrapper without going through Jackson's bean introspection for the envelope itself:
+// field names are pre-encoded (SerializedString keeps their UTF-8 bytes), status is written as a plain number and
+// only `data` goes through the ObjectMapper. The output is byte-for-byte what the ObjectMapper would produce
+// (field order, NON_NULL, ISO timestamp) -> see ApiResponseWrapperConverterTest.
+@SuppressWarnings("rawtypes")
+public class ApiResponseWrapperConverter extends AbstractHttpMessageConverter<ApiResponseWrapper> {
+    private static final SerializedString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializedString STATUS = new SerializedString("status");
+    private static final SerializedString MESSAGE = new SerializedString("message");
+    private static final SerializedString EXCEPTION_ERROR = new SerializedString("exceptionError");
+    private static final SerializedString DATA = new SerializedString("data");
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter dataWriter;
+    private final boolean isoTimestamps;
+
+    public ApiResponseWrapperConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.objectMapper = objectMapper;
+        this.dataWriter = objectMapper.writer();
+        // the timestamp is formatted here, so only take over when the mapper writes ISO strings too (Spring Boot's default)
+        this.isoTimestamps = !objectMapper.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return isoTimestamps && ApiResponseWrapper.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false; // response envelope only, request bodies are never wrapped
+    }
+
+    @Override
+    protected ApiResponseWrapper readInternal(Class<? extends ApiResponseWrapper> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("ApiResponseWrapper is write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(ApiResponseWrapper response, HttpOutputMessage outputMessage) throws IOException {
+        writeTo(response, outputMessage.getBody());
+    }
+
+    public void writeTo(ApiResponseWrapper<?> response, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // the container owns the response stream
+            generator.writeStartObject();
+            if (response.getTimestamp() != null) {
+                generator.writeFieldName(TIMESTAMP);
+                writeTimestamp(generator, response.getTimestamp());
+            }
+            generator.writeFieldName(STATUS);
+            generator.writeNumber(response.getStatus());
+            if (response.getMessage() != null) {
+                generator.writeFieldName(MESSAGE);
+                generator.writeString(response.getMessage());
+            }
+            if (response.getExceptionError() != null) {
+                generator.writeFieldName(EXCEPTION_ERROR);
+                generator.writeString(response.getExceptionError());
+            }
+            if (response.getData() != null) {
+                generator.writeFieldName(DATA);
+                dataWriter.writeValue(generator, response.getData());
+            }
+            generator.writeEndObject();
+        }
+    }
+
+    // same text as DateTimeFormatter.ISO_LOCAL_DATE_TIME (seconds always, fraction without trailing zeros),
+    // written from one small char[] instead of a StringBuilder + String per response
+    private static void writeTimestamp(JsonGenerator generator, LocalDateTime timestamp) throws IOException {
+        if (timestamp.getYear() < 0 || timestamp.getYear() > 9999) { // sign / more than 4 digits, never happens for now()
+            generator.writeString(DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(timestamp));
+            return;
+        }
+        char[] text = new char[29];
+        digits(text, 0, timestamp.getYear(), 4);
+        text[4] = '-';
+        digits(text, 5, timestamp.getMonthValue(), 2);
+        text[7] = '-';
+        digits(text, 8, timestamp.getDayOfMonth(), 2);
+        text[10] = 'T';
+        digits(text, 11, timestamp.getHour(), 2);
+        text[13] = ':';
+        digits(text, 14, timestamp.getMinute(), 2);
+        text[16] = ':';
+        digits(text, 17, timestamp.getSecond(), 2);
+        int length = 19;
+        int nanos = timestamp.getNano();
+        if (nanos > 0) {
+            text[19] = '.';
+            digits(text, 20, nanos, 9);
+            length = 29;
+            while (text[length - 1] == '0') length--;
+        }
+        generator.writeString(text, 0, length);
+    }
+
+    private static void digits(char[] text, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
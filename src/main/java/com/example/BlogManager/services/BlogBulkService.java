@@ -0,0 +1,164 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.dto.BulkItemResult;
+import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.objects.UserEntity;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Bulk blog import: streams a JSON array of blogs and inserts them in JDBC batches, one transaction per batch.
+// The author is resolved once per request and every batch only holds a reference to it.
+// Per-item results are streamed back as NDJSON while the request is still being read, nothing is kept for the whole request.
+@Slf4j
+@Service
+@Timed("service.calls")
+public class BlogBulkService {
+    private static final int MAX_BATCH_SIZE = 5_000;
+
+    private final BlogService blogService;
+    private final BlogSearchIndex blogSearchIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int defaultBatchSize;
+
+    public BlogBulkService(BlogService blogService,
+                           BlogSearchIndex blogSearchIndex,
+                           EntityManager entityManager,
+                           PlatformTransactionManager transactionManager,
+                           ObjectMapper objectMapper,
+                           @Value("${app.blog-bulk.batch-size:500}") int defaultBatchSize) {
+        this.blogService = blogService;
+        this.blogSearchIndex = blogSearchIndex;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.defaultBatchSize = defaultBatchSize;
+    }
+
+    // checks the request and opens the array before the response starts (-> 400), then the returned body inserts
+    // and writes one NDJSON result line per element, in input order, as each batch commits
+    public StreamingResponseBody saveAll(InputStream json, Integer batchSize, String username) throws IOException {
+        int size = batchSize == null ? defaultBatchSize : batchSize;
+        if (size < 1 || size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("batchSize must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        Long authorId = blogService.fetchUserDetailsFromDB(username).getId();
+
+        JsonParser parser = objectMapper.getFactory().createParser(json);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IllegalArgumentException("bulk body must be a JSON array of blogs");
+        }
+        return out -> {
+            try (parser; JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // the container owns the response stream
+                generator.setRootValueSeparator(null); // lines are separated by hand
+                insert(parser, size, authorId, generator);
+            }
+        };
+    }
+
+    // a window is `size` consecutive elements, valid or not -> neither the batch nor the pending results outgrow it
+    void insert(JsonParser parser, int size, Long authorId, JsonGenerator generator) throws IOException {
+        long start = System.currentTimeMillis();
+        Window window = new Window(size);
+        int index = 0;
+        try {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                // one element at a time, results leave with their window -> memory is bounded by the batch size
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    Blog blog = objectMapper.treeToValue(node, Blog.class);
+                    blog.setId(null); // client can't choose ids, versions, author or comments
+                    blog.setVersion(null);
+                    blog.setComments(null);
+                    window.batch.add(blog);
+                    window.batchIndexes.add(index);
+                } catch (IOException | IllegalArgumentException e) {
+                    window.results.add(BulkItemResult.failed(index, "invalid blog: " + e.getMessage()));
+                }
+                index++;
+                if (index % size == 0) {
+                    flush(window, authorId, generator);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // the body broke off mid-array: keep what was parsed, and tell the client where it stopped
+            window.results.add(BulkItemResult.failed(index, "malformed body, nothing after this element was read: " + e.getOriginalMessage()));
+        }
+        flush(window, authorId, generator);
+        log.info("bulk created {} blogs, {} failed in {} ms", window.created, window.failed, System.currentTimeMillis() - start);
+    }
+
+    private void flush(Window window, Long authorId, JsonGenerator generator) throws IOException {
+        List<Blog> batch = window.batch;
+        List<Integer> batchIndexes = window.batchIndexes;
+        if (!batch.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    UserEntity author = entityManager.getReference(UserEntity.class, authorId);
+                    for (Blog blog : batch) {
+                        blog.setUserEntity(author);
+                        entityManager.persist(blog);
+                    }
+                    entityManager.flush(); // one JDBC batch per hibernate.jdbc.batch_size rows
+                    entityManager.clear(); // keep the persistence context from growing across batches
+                });
+                for (int i = 0; i < batch.size(); i++) {
+                    window.results.add(BulkItemResult.created(batchIndexes.get(i), batch.get(i).getId()));
+                    blogSearchIndex.index(batch.get(i));
+                }
+            } catch (RuntimeException e) {
+                log.error("bulk insert batch of {} blogs failed", batch.size(), e);
+                entityManager.clear(); // drop whatever the failed batch left in the (open-in-view) persistence context
+                for (Integer index : batchIndexes) {
+                    window.results.add(BulkItemResult.failed(index, "batch rolled back: " + e.getMessage()));
+                }
+            }
+        }
+        window.results.sort(Comparator.comparingInt(BulkItemResult::getIndex)); // parse failures were recorded before their batch
+        for (BulkItemResult result : window.results) {
+            if (result.getError() == null) window.created++;
+            else window.failed++;
+            generator.writeObject(result);
+            generator.writeRaw('\n');
+        }
+        generator.flush(); // the client sees each window as soon as it is committed
+        window.results.clear();
+        batch.clear();
+        batchIndexes.clear();
+    }
+
+    private static final class Window {
+        private final List<Blog> batch;
+        private final List<Integer> batchIndexes;
+        private final List<BulkItemResult> results;
+        private long created;
+        private long failed;
+
+        private Window(int size) {
+            this.batch = new ArrayList<>(size);
+            this.batchIndexes = new ArrayList<>(size);
+            this.results = new ArrayList<>(size);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.dto.BlogDetail;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Read-through cache of BlogDetail (the blog row + author userId, no comments) by blog id.
+// L1 is an in-process Caffeine cache; concurrent misses for the same id are coalesced into a single load.
+// L2 is optional: set app.blog-cache.second-tier to the name of a cache from any Spring CacheManager bean (e.g. Redis).
+// Every write to a blog must call evict(id); comment writes don't, CommentCounter evicts when it flushes the count.
+@Component
+public class BlogCache {
+    private final Cache<Long, BlogDetail> local;
+    private final org.springframework.cache.Cache secondTier; // null when not configured
+
+    @Autowired
+    public BlogCache(@Value("${app.blog-cache.max-size:10000}") long maxSize,
+                     @Value("${app.blog-cache.ttl:PT1M}") Duration ttl,
+                     @Value("${app.blog-cache.second-tier:}") String secondTierName,
+                     ObjectProvider<CacheManager> cacheManager) {
+        this(maxSize, ttl, secondTierName.isBlank() ? null : resolveSecondTier(cacheManager, secondTierName));
+    }
+
+    public BlogCache(long maxSize, Duration ttl, org.springframework.cache.Cache secondTier) {
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl) // bounds staleness if a read races with an eviction
+                .recordStats()
+                .build();
+        this.secondTier = secondTier;
+    }
+
+    public Optional<BlogDetail> get(Long id, Function<Long, Optional<BlogDetail>> loader) {
+        // Caffeine runs the mapping function once per key, other callers for the same id wait for its result
+        return Optional.ofNullable(local.get(id, key -> {
+            if (secondTier != null) {
+                BlogDetail cached = secondTier.get(key, BlogDetail.class);
+                if (cached != null) return cached;
+            }
+            BlogDetail loaded = loader.apply(key).orElse(null);
+            if (loaded != null && secondTier != null) secondTier.put(key, loaded);
+            return loaded;
+        }));
+    }
+
+    public void evict(Long id) {
+        local.invalidate(id);
+        if (secondTier != null) secondTier.evict(id);
+    }
+
+    public CacheStats stats() {
+        return local.stats();
+    }
+
+    private static org.springframework.cache.Cache resolveSecondTier(ObjectProvider<CacheManager> cacheManager, String name) {
+        CacheManager manager = cacheManager.getIfAvailable();
+        if (manager == null || manager.getCache(name) == null) {
+            throw new IllegalStateException("app.blog-cache.second-tier=" + name + " but no CacheManager provides that cache");
+        }
+        return manager.getCache(name);
+    }
+}
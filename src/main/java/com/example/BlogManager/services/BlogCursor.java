@@ -0,0 +1,29 @@
+package com.example.BlogManager.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset cursor: the sort column, the last seen value of that column and the last seen id.
+// A null value means the previous page ended inside the rows where the sort column is NULL.
+public record BlogCursor(String sortBy, String value, long id) {
+    private static final char SEPARATOR = '\u001F'; // ASCII unit separator, never part of a title
+
+    public String encode() {
+        String raw = sortBy + SEPARATOR + id + SEPARATOR + (value == null ? "n" : "v" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BlogCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int second = raw.indexOf(SEPARATOR, first + 1);
+            String sortBy = raw.substring(0, first);
+            long id = Long.parseLong(raw.substring(first + 1, second));
+            String value = raw.charAt(second + 1) == 'n' ? null : raw.substring(second + 2);
+            return new BlogCursor(sortBy, value, id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid cursor: " + cursor);
+        }
+    }
+}
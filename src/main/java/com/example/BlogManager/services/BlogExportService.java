@@ -0,0 +1,126 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.objects.UserType;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+// Full dump of blogs with their comments as NDJSON (one blog per line).
+// Rows come from a single forward-only JDBC cursor (blogs left join comments, ordered by blog id then comment id)
+// inside a read-only transaction, and are written straight to the response -> memory use does not depend on the row count.
+@Slf4j
+@Service
+public class BlogExportService {
+    private static final String EXPORT_SQL = """
+            SELECT b.id, b.title, b.content, bu.user_id, c.id, c.content, cu.user_id
+            FROM blogs b
+            JOIN users bu ON bu.id = b.user_id
+            LEFT JOIN comments c ON c.blog_id = b.id
+            LEFT JOIN users cu ON cu.id = c.user_id
+            ORDER BY b.id, c.id""";
+
+    private final BlogService blogService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public BlogExportService(BlogService blogService,
+                             DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${app.blog-export.fetch-size:1000}") int fetchSize) {
+        this.blogService = blogService;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize); // postgres only streams with a fetch size inside a transaction
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    // Only ADMIN can export, null otherwise (checked before the response starts streaming)
+    public StreamingResponseBody export(String username) {
+        UserEntity userEntity = blogService.fetchUserDetailsFromDB(username);
+        if (userEntity.getUserType() != UserType.ADMIN) {
+            return null;
+        }
+        return this::writeNdjson;
+    }
+
+    void writeNdjson(OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // the container owns the response stream
+            generator.setRootValueSeparator(null); // lines are separated by hand below
+            ExportWriter writer = new ExportWriter(generator);
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(EXPORT_SQL, writer::row));
+            writer.finish();
+            log.info("exported {} blogs in {} ms", writer.blogs, System.currentTimeMillis() - start);
+        } catch (UncheckedIOException e) {
+            throw e.getCause(); // client went away mid-export
+        }
+    }
+
+    // turns the joined rows into one JSON object per blog; only the current line is ever held, and only by the generator
+    private static final class ExportWriter {
+        private final JsonGenerator generator;
+        private long currentBlogId = -1;
+        private long blogs;
+
+        private ExportWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        private void row(ResultSet rs) throws SQLException {
+            try {
+                long blogId = rs.getLong(1);
+                if (blogId != currentBlogId) {
+                    finish();
+                    currentBlogId = blogId;
+                    blogs++;
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", blogId);
+                    generator.writeStringField("title", rs.getString(2));
+                    generator.writeStringField("content", rs.getString(3));
+                    generator.writeStringField("authorUserId", rs.getString(4));
+                    generator.writeArrayFieldStart("comments");
+                }
+                long commentId = rs.getLong(5);
+                if (!rs.wasNull()) {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", commentId);
+                    generator.writeStringField("content", rs.getString(6));
+                    generator.writeStringField("authorUserId", rs.getString(7));
+                    generator.writeEndObject();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void finish() {
+            if (currentBlogId == -1) return;
+            try {
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            currentBlogId = -1;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.dto.ImportReport;
+import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.objects.ImportCheckpoint;
+import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.objects.UserType;
+import com.example.BlogManager.repositories.ImportCheckpointRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.SequenceGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Admin NDJSON import, the counterpart of GET /api/blog/export.
+// Line formats:
+//   {"type":"user","userId":"..","name":"..","userType":"USER","password":"<bcrypt hash>"}
+//   {"title":"..","content":"..","authorUserId":"..","comments":[{"content":"..","authorUserId":".."}]}  (type "blog" is the default)
+// The request thread parses lines into batches and hands them to a single writer thread through a bounded queue;
+// when the writer falls behind the reader blocks, so the client is slowed down instead of the heap filling up.
+// Each batch is one transaction of JDBC batch inserts plus the job's checkpoint (last line covered), so a failed job
+// resumes with the same jobId after the last committed line. Authors are resolved through an in-memory userId -> id map.
+@Slf4j
+@Service
+public class BlogImportService {
+    private static final int MAX_BATCH_SIZE = 5_000;
+    private static final int MAX_REJECTED_LINES = 100;
+    private static final int USER_LOOKUP_CHUNK = 1_000;
+    private static final Batch END = new Batch(); // end of input marker for the writer
+
+    private final BlogService blogService;
+    private final BlogSearchIndex blogSearchIndex;
+    private final ImportCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final String nextBlogIdSql;
+    private final int blogIdBlockSize;
+    private final int defaultBatchSize;
+    private final int queueCapacity;
+
+    public BlogImportService(BlogService blogService,
+                             BlogSearchIndex blogSearchIndex,
+                             ImportCheckpointRepository checkpointRepository,
+                             DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             EntityManagerFactory entityManagerFactory,
+                             ObjectMapper objectMapper,
+                             @Value("${app.import.batch-size:1000}") int defaultBatchSize,
+                             @Value("${app.import.queue-capacity:4}") int queueCapacity) {
+        this.blogService = blogService;
+        this.blogSearchIndex = blogSearchIndex;
+        this.checkpointRepository = checkpointRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.defaultBatchSize = defaultBatchSize;
+        this.queueCapacity = queueCapacity;
+
+        // blog ids come from the same sequence and in the same blocks as Hibernate's pooled optimizer uses for Blog.id
+        SequenceGenerator sequence = blogIdSequence();
+        this.blogIdBlockSize = sequence.allocationSize();
+        this.nextBlogIdSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .getSequenceSupport().getSequenceNextValString(sequence.sequenceName());
+    }
+
+    // Only ADMIN can import, null otherwise
+    public ImportReport importNdjson(InputStream ndjson, String jobId, Integer batchSize, String username) throws IOException, InterruptedException {
+        UserEntity userEntity = blogService.fetchUserDetailsFromDB(username);
+        if (userEntity.getUserType() != UserType.ADMIN) {
+            return null;
+        }
+        int size = batchSize == null ? defaultBatchSize : batchSize;
+        if (size < 1 || size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("batchSize must be between 1 and " + MAX_BATCH_SIZE);
+        }
+
+        String id = (jobId == null || jobId.isBlank()) ? UUID.randomUUID().toString() : jobId;
+        long resumeAfter = checkpointRepository.findById(id).map(ImportCheckpoint::getLastLine).orElse(0L);
+        ImportReport report = new ImportReport();
+        report.setJobId(id);
+        report.setLastCommittedLine(resumeAfter);
+        report.setRejectedLines(Collections.synchronizedList(new ArrayList<>())); // written by reader and writer
+        long start = System.nanoTime();
+
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(queueCapacity);
+        Writer writer = new Writer(id, queue, report);
+        Thread writerThread = Thread.ofVirtual().name("blog-import-" + id).start(writer);
+        long lineNo = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+            Batch batch = new Batch();
+            String line;
+            while (writer.failure == null && (line = reader.readLine()) != null) {
+                lineNo++;
+                if (lineNo <= resumeAfter) {
+                    report.setLinesSkipped(report.getLinesSkipped() + 1);
+                    continue;
+                }
+                if (!line.isBlank()) parse(line, lineNo, batch, report);
+                batch.lastLine = lineNo;
+                if (batch.rows >= size) {
+                    hand(queue, batch, writer);
+                    batch = new Batch();
+                }
+            }
+            if (batch.lastLine > 0) hand(queue, batch, writer);
+        } finally {
+            hand(queue, END, writer);
+            writerThread.join();
+        }
+
+        long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+        report.setLinesRead(lineNo);
+        report.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        report.setLinesPerSecond((lineNo - report.getLinesSkipped()) * 1e9 / elapsedNanos);
+        report.setCompleted(writer.failure == null);
+        if (writer.failure != null) {
+            report.setError(writer.failure.getMessage());
+        }
+        log.info("import {} {}: {} lines ({} skipped) in {} ms, {} lines/s, {} users, {} blogs, {} comments",
+                id, report.isCompleted() ? "completed" : "failed", lineNo, report.getLinesSkipped(), report.getElapsedMillis(),
+                Math.round(report.getLinesPerSecond()), report.getUsersCreated(), report.getBlogsCreated(), report.getCommentsCreated());
+        return report;
+    }
+
+    private void parse(String line, long lineNo, Batch batch, ImportReport report) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            String type = node.path("type").asText("blog");
+            switch (type) {
+                case "user" -> {
+                    String password = required(node, "password");
+                    if (!password.startsWith("$2")) throw new IllegalArgumentException("password must be a bcrypt hash");
+                    UserType userType = UserType.valueOf(node.path("userType").asText(UserType.USER.name()));
+                    batch.users.add(new UserRow(lineNo, required(node, "userId"), node.path("name").asText(null), password, userType));
+                    batch.rows++;
+                }
+                case "blog" -> {
+                    List<CommentRow> comments = new ArrayList<>();
+                    for (JsonNode comment : node.path("comments")) {
+                        comments.add(new CommentRow(comment.path("content").asText(null), required(comment, "authorUserId")));
+                    }
+                    batch.blogs.add(new BlogRow(lineNo, node.path("title").asText(null), node.path("content").asText(null),
+                            required(node, "authorUserId"), comments));
+                    batch.rows += 1 + comments.size();
+                }
+                default -> throw new IllegalArgumentException("unknown type: " + type);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            reject(report, lineNo, e.getMessage());
+        }
+    }
+
+    private static String required(JsonNode node, String field) {
+        String value = node.path(field).asText(null);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException(field + " is required");
+        return value;
+    }
+
+    private static void reject(ImportReport report, long lineNo, String reason) {
+        synchronized (report) {
+            report.setLinesRejected(report.getLinesRejected() + 1);
+        }
+        if (report.getRejectedLines().size() < MAX_REJECTED_LINES) {
+            report.getRejectedLines().add("line " + lineNo + ": " + reason);
+        }
+    }
+
+    // blocks while the queue is full (backpressure), gives up once the writer has stopped
+    private static void hand(BlockingQueue<Batch> queue, Batch batch, Writer writer) throws InterruptedException {
+        while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+            if (writer.failure != null) return;
+        }
+    }
+
+    private static SequenceGenerator blogIdSequence() {
+        try {
+            return Blog.class.getDeclaredField("id").getAnnotation(SequenceGenerator.class);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record UserRow(long line, String userId, String name, String password, UserType userType) {
+    }
+
+    private record CommentRow(String content, String authorUserId) {
+    }
+
+    private record BlogRow(long line, String title, String content, String authorUserId, List<CommentRow> comments) {
+    }
+
+    private static final class Batch {
+        private final List<UserRow> users = new ArrayList<>();
+        private final List<BlogRow> blogs = new ArrayList<>();
+        private int rows;
+        private long lastLine;
+    }
+
+    // the only thread that touches the database for a job; owns the userId -> id map and the current block of blog ids
+    private final class Writer implements Runnable {
+        private final String jobId;
+        private final BlockingQueue<Batch> queue;
+        private final ImportReport report;
+        private final Map<String, Long> userIds = new HashMap<>();
+        private long nextBlogId;
+        private long blogIdBlockEnd = -1;
+        private volatile Exception failure;
+
+        private Writer(String jobId, BlockingQueue<Batch> queue, ImportReport report) {
+            this.jobId = jobId;
+            this.queue = queue;
+            this.report = report;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Batch batch;
+                while ((batch = queue.take()) != END) {
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                failure = e;
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                failure = e;
+                log.error("import {} failed after line {}", jobId, report.getLastCommittedLine(), e);
+            }
+        }
+
+        private void write(Batch batch) {
+            List<Blog> written = new ArrayList<>();
+            long[] counts = new long[3];
+            transactionTemplate.executeWithoutResult(status -> {
+                counts[0] = insertUsers(batch.users);
+                resolveUserIds(batch.blogs.stream()
+                        .flatMap(blog -> Stream.concat(Stream.of(blog.authorUserId()), blog.comments().stream().map(CommentRow::authorUserId)))
+                        .toList());
+
+                List<Object[]> blogRows = new ArrayList<>();
+                List<Object[]> commentRows = new ArrayList<>();
+                for (BlogRow row : batch.blogs) {
+                    Long authorId = userIds.get(row.authorUserId());
+                    if (authorId == null) {
+                        reject(report, row.line(), "unknown author " + row.authorUserId());
+                        continue;
+                    }
+                    long blogId = nextBlogId();
+                    Object[] blogRow = {blogId, row.title(), row.content(), authorId, 0L};
+                    blogRows.add(blogRow);
+                    for (CommentRow comment : row.comments()) {
+                        Long commenterId = userIds.get(comment.authorUserId());
+                        if (commenterId == null) {
+                            reject(report, row.line(), "comment skipped, unknown author " + comment.authorUserId());
+                            continue;
+                        }
+                        commentRows.add(new Object[]{comment.content(), commenterId, blogId});
+                        blogRow[4] = (long) blogRow[4] + 1; // comment_count is set on insert, the rows bypass CommentCounter
+                    }
+                    Blog blog = new Blog(row.title(), row.content());
+                    blog.setId(blogId);
+                    blog.setUserEntity(userReference(authorId)); // the search index files every blog under its author
+                    written.add(blog);
+                }
+                jdbcTemplate.batchUpdate("INSERT INTO blogs (id, title, content, user_id, comment_count) VALUES (?, ?, ?, ?, ?)", blogRows);
+                jdbcTemplate.batchUpdate("INSERT INTO comments (content, user_id, blog_id) VALUES (?, ?, ?)", commentRows);
+                counts[1] = blogRows.size();
+                counts[2] = commentRows.size();
+                checkpointRepository.save(new ImportCheckpoint(jobId, batch.lastLine, LocalDateTime.now()));
+            });
+
+            written.forEach(blogSearchIndex::index);
+            synchronized (report) {
+                report.setUsersCreated(report.getUsersCreated() + counts[0]);
+                report.setBlogsCreated(report.getBlogsCreated() + counts[1]);
+                report.setCommentsCreated(report.getCommentsCreated() + counts[2]);
+                report.setLastCommittedLine(batch.lastLine);
+            }
+            log.debug("import {}: committed up to line {}", jobId, batch.lastLine);
+        }
+
+        // stands in for the author row like EntityManager.getReference would, only the id is ever read
+        private static UserEntity userReference(Long id) {
+            UserEntity user = new UserEntity();
+            user.setId(id);
+            return user;
+        }
+
+        // users that already exist are left untouched -> re-sending a stream is harmless
+        private long insertUsers(List<UserRow> users) {
+            if (users.isEmpty()) return 0;
+            resolveUserIds(users.stream().map(UserRow::userId).toList());
+            Map<String, UserRow> missing = new LinkedHashMap<>();
+            for (UserRow user : users) {
+                if (!userIds.containsKey(user.userId())) missing.putIfAbsent(user.userId(), user);
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO users (name, user_id, password, user_type) VALUES (?, ?, ?, ?)",
+                    missing.values().stream()
+                            .map(user -> new Object[]{user.name(), user.userId(), user.password(), user.userType().ordinal()})
+                            .toList());
+            resolveUserIds(new ArrayList<>(missing.keySet()));
+            return missing.size();
+        }
+
+        // one IN query per chunk of userIds not seen before in this job
+        private void resolveUserIds(List<String> referenced) {
+            List<String> unknown = referenced.stream().distinct().filter(userId -> !userIds.containsKey(userId)).toList();
+            for (int from = 0; from < unknown.size(); from += USER_LOOKUP_CHUNK) {
+                List<String> chunk = unknown.subList(from, Math.min(from + USER_LOOKUP_CHUNK, unknown.size()));
+                namedJdbcTemplate.query("SELECT user_id, id FROM users WHERE user_id IN (:userIds)", Map.of("userIds", chunk),
+                        rs -> {
+                            userIds.put(rs.getString(1), rs.getLong(2));
+                        });
+            }
+        }
+
+        // one sequence call per block, same rules as Hibernate's pooled optimizer: a value V reserves (V - allocationSize, V],
+        // except the very first value of a fresh sequence, which starts a block that ends at the following value
+        private long nextBlogId() {
+            if (nextBlogId > blogIdBlockEnd) {
+                long value = jdbcTemplate.queryForObject(nextBlogIdSql, Long.class);
+                if (value < blogIdBlockSize) {
+                    nextBlogId = value;
+                    blogIdBlockEnd = jdbcTemplate.queryForObject(nextBlogIdSql, Long.class);
+                } else {
+                    nextBlogId = value - blogIdBlockSize + 1;
+                    blogIdBlockEnd = value;
+                }
+            }
+            return nextBlogId++;
+        }
+    }
+}
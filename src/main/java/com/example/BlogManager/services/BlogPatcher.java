@@ -0,0 +1,93 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.objects.Blog;
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// Applies PATCH bodies to a Blog without per-request reflection.
+// The table of patchable fields is built once from the entity metadata: only plain, updatable columns
+// qualify, so ids, associations (userEntity, comments), version columns and timestamps can never be overwritten.
+@Component
+public class BlogPatcher {
+    private final Map<String, FieldPatcher> patchers;
+
+    public BlogPatcher() {
+        Map<String, FieldPatcher> table = new HashMap<>();
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        for (Field field : Blog.class.getDeclaredFields()) {
+            if (!isPatchable(field)) continue;
+            String name = field.getName();
+            String setterName = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            try {
+                MethodHandle setter = lookup.findVirtual(Blog.class, setterName, MethodType.methodType(void.class, field.getType()))
+                        .asType(MethodType.methodType(void.class, Blog.class, Object.class)); // erased once so invokeExact needs no adaptation
+                table.put(name, new FieldPatcher(setter, coercerFor(name, field.getType())));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalStateException("Blog field " + name + " has no public setter", e);
+            }
+        }
+        this.patchers = Collections.unmodifiableMap(table);
+    }
+
+    public void apply(Blog blog, Map<String, Object> updates) {
+        // validate the whole request before touching the entity so a bad field never leaves it half-patched
+        updates.keySet().forEach(fieldName -> {
+            if (!patchers.containsKey(fieldName)) {
+                throw new IllegalArgumentException("field can't be patched: " + fieldName + ", allowed fields: " + patchers.keySet());
+            }
+        });
+        updates.forEach((fieldName, value) -> patchers.get(fieldName).set(blog, value));
+    }
+
+    private static boolean isPatchable(Field field) {
+        if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) return false;
+        if (field.isAnnotationPresent(Id.class) || field.isAnnotationPresent(Version.class)
+                || field.isAnnotationPresent(Transient.class) || field.isAnnotationPresent(UpdateTimestamp.class)
+                || field.isAnnotationPresent(ManyToOne.class) || field.isAnnotationPresent(OneToMany.class)
+                || field.isAnnotationPresent(OneToOne.class) || field.isAnnotationPresent(ManyToMany.class)) {
+            return false;
+        }
+        Column column = field.getAnnotation(Column.class);
+        return column == null || column.updatable();
+    }
+
+    private static Function<Object, Object> coercerFor(String name, Class<?> type) {
+        if (type == String.class) {
+            return value -> value == null ? null : value.toString();
+        }
+        if (type == Long.class || type == long.class) {
+            return value -> value instanceof Number n ? (Object) n.longValue() : value == null ? null : Long.valueOf(value.toString());
+        }
+        if (type == Integer.class || type == int.class) {
+            return value -> value instanceof Number n ? (Object) n.intValue() : value == null ? null : Integer.valueOf(value.toString());
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return value -> value instanceof Boolean ? value : value == null ? null : Boolean.valueOf(value.toString());
+        }
+        throw new IllegalStateException("no PATCH coercion for Blog." + name + " of type " + type.getName());
+    }
+
+    private record FieldPatcher(MethodHandle setter, Function<Object, Object> coercer) {
+        void set(Blog blog, Object rawValue) {
+            Object value = coercer.apply(rawValue); // NumberFormatException is an IllegalArgumentException -> 400
+            try {
+                setter.invokeExact(blog, value);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException("Failed to patch blog", e);
+            }
+        }
+    }
+}
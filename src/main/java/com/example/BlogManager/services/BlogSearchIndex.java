@@ -0,0 +1,417 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.repositories.BlogRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-process inverted index over blog titles and content, used when app.blog-search.engine=index.
+// term -> sorted long[] of blog ids (no boxing), plus a forward index id -> terms so a blog can be unindexed on update/delete.
+// The author is indexed as one more term, so "only this author's blogs" is just another list in the intersection.
+// Kept current by BlogService/BlogBulkService writes, snapshotted to disk periodically and on shutdown together with
+// the time it was taken. On startup the snapshot is loaded, blogs deleted since are dropped (id scan of the primary key)
+// and blogs created or edited since (blogs.updated_at) are re-read; ids are no watermark, the sequence hands them out
+// in blocks. Snapshotted blogs that lack the author term are re-read as well. Without a usable snapshot the index is
+// rebuilt from the table.
+// While running, writes that don't go through this instance (other nodes, manual SQL) are only seen after a restart.
+@Slf4j
+@Component
+public class BlogSearchIndex {
+    private static final int SNAPSHOT_MAGIC = 0x42534958; // "BSIX"
+    private static final int SNAPSHOT_VERSION = 3; // 2: author terms, 3: snapshot time
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final int REBUILD_PAGE_SIZE = 500;
+    private static final int ID_PAGE_SIZE = 10_000;
+    private static final char TITLE_MARKER = '\u0001'; // title terms are indexed a second time with this prefix -> title boost
+    private static final char AUTHOR_MARKER = '\u0002'; // + users.id of the author
+
+    public record Match(long id, float rank) {
+    }
+
+    private final boolean enabled;
+    private final Path snapshotPath;
+    private final Duration catchUpMargin;
+    private final BlogRepository blogRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, String[]> documentTerms = new HashMap<>();
+    private volatile boolean dirty;
+
+    public BlogSearchIndex(@Value("${app.blog-search.engine:postgres}") String engine,
+                           @Value("${app.blog-search.index.snapshot-path:data/blog-search.idx}") Path snapshotPath,
+                           @Value("${app.blog-search.index.catch-up-margin:PT1M}") Duration catchUpMargin,
+                           BlogRepository blogRepository) {
+        this.enabled = engine.equals("index");
+        this.snapshotPath = snapshotPath;
+        this.catchUpMargin = catchUpMargin;
+        this.blogRepository = blogRepository;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void index(Blog blog) {
+        if (!enabled || blog.getId() == null) return;
+        // getId() of the lazy author proxy doesn't load the user
+        Long authorId = blog.getUserEntity() == null ? null : blog.getUserEntity().getId();
+        String[] terms = terms(blog.getTitle(), blog.getContent(), authorId);
+        lock.writeLock().lock();
+        try {
+            unindex(blog.getId());
+            for (String term : terms) {
+                postings.computeIfAbsent(term, key -> new Postings()).add(blog.getId());
+            }
+            documentTerms.put(blog.getId(), terms);
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        if (!enabled) return;
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+            dirty = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // AND over all query terms (and the author, unless authorId is null); rank = number of query terms found in the title.
+    // ordered by (rank desc, id desc) like the postgres engine, afterRank/afterId seek past the previous page
+    public List<Match> search(String query, Long authorId, Float afterRank, long afterId, int limit) {
+        String[] queryTerms = Arrays.stream(tokenize(query)).distinct().toArray(String[]::new);
+        if (queryTerms.length == 0) return List.of();
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = new Postings[queryTerms.length + (authorId == null ? 0 : 1)];
+            for (int i = 0; i < queryTerms.length; i++) {
+                lists[i] = postings.get(queryTerms[i]);
+                if (lists[i] == null) return List.of();
+            }
+            if (authorId != null) {
+                lists[queryTerms.length] = postings.get(AUTHOR_MARKER + authorId.toString());
+                if (lists[queryTerms.length] == null) return List.of();
+            }
+            long[] candidates = Arrays.stream(lists).min(Comparator.comparingInt(list -> list.size)).orElseThrow().copy();
+            int count = candidates.length;
+            for (Postings list : lists) {
+                count = list.retainAll(candidates, count);
+            }
+
+            List<Match> matches = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long id = candidates[i];
+                int rank = 0;
+                for (String term : queryTerms) {
+                    Postings title = postings.get(TITLE_MARKER + term);
+                    if (title != null && title.contains(id)) rank++;
+                }
+                if (afterRank == null || rank < afterRank || (rank == afterRank && id < afterId)) {
+                    matches.add(new Match(id, rank));
+                }
+            }
+            matches.sort(Comparator.comparingDouble(Match::rank).reversed().thenComparing(Comparator.comparingLong(Match::id).reversed()));
+            return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // warm start: snapshot, then what changed in the table since it was taken; a full read without a snapshot
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) return;
+        long start = System.currentTimeMillis();
+        Instant snapshotTime = loadSnapshot();
+        int loaded = size();
+        int removed = 0;
+        int scanned = 0;
+        if (snapshotTime == null) {
+            long lastId = 0;
+            Slice<Blog> page;
+            do {
+                page = blogRepository.findPageAfterId(lastId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (Blog blog : page) {
+                    index(blog);
+                    lastId = blog.getId();
+                    scanned++;
+                }
+            } while (page.hasNext());
+        } else {
+            removed = removeDeleted();
+            // the margin covers rows stamped before the snapshot but committed (or indexed) after it, and clock skew
+            // between this JVM, other nodes and the database; re-indexing a blog twice is harmless
+            Instant since = snapshotTime.minus(catchUpMargin);
+            long lastId = 0;
+            Slice<Blog> page;
+            do {
+                page = blogRepository.findPageChangedSince(since, lastId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (Blog blog : page) {
+                    index(blog);
+                    lastId = blog.getId();
+                    scanned++;
+                }
+            } while (page.hasNext());
+            scanned += reindexWithoutAuthor();
+        }
+        log.info("blog search index ready: {} blogs from snapshot, {} removed, {} read from the table in {} ms",
+                loaded, removed, scanned, System.currentTimeMillis() - start);
+    }
+
+    // documents snapshotted without an author term (the import wrote them that way before it set the author) never match
+    // an author-restricted search, and updated_at doesn't bring them back -> re-read them by id
+    private int reindexWithoutAuthor() {
+        List<Long> ids;
+        lock.readLock().lock();
+        try {
+            ids = documentTerms.entrySet().stream()
+                    .filter(document -> document.getValue().length == 0 || document.getValue()[0].charAt(0) != AUTHOR_MARKER)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (int from = 0; from < ids.size(); from += REBUILD_PAGE_SIZE) {
+            blogRepository.findAllById(ids.subList(from, Math.min(from + REBUILD_PAGE_SIZE, ids.size()))).forEach(this::index);
+        }
+        if (!ids.isEmpty()) log.info("blog search index: {} blogs had no author term, re-read from the table", ids.size());
+        return ids.size();
+    }
+
+    // drops snapshot entries whose blog is gone: walks the primary key in id order next to the sorted snapshot ids
+    private int removeDeleted() {
+        long[] known;
+        lock.readLock().lock();
+        try {
+            known = documentTerms.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int removed = 0;
+        int k = 0;
+        long lastId = 0;
+        List<Long> ids;
+        do {
+            ids = blogRepository.findIdsAfter(lastId, PageRequest.of(0, ID_PAGE_SIZE));
+            for (long id : ids) {
+                while (k < known.length && known[k] < id) {
+                    remove(known[k++]);
+                    removed++;
+                }
+                if (k < known.length && known[k] == id) k++;
+                lastId = id;
+            }
+        } while (ids.size() == ID_PAGE_SIZE);
+        while (k < known.length) {
+            remove(known[k++]);
+            removed++;
+        }
+        return removed;
+    }
+
+    @Scheduled(fixedDelayString = "${app.blog-search.index.snapshot-interval:PT5M}",
+            initialDelayString = "${app.blog-search.index.snapshot-interval:PT5M}")
+    public void scheduledSnapshot() {
+        if (enabled && dirty) snapshot();
+    }
+
+    @PreDestroy
+    public void snapshotOnShutdown() {
+        if (enabled && dirty) snapshot();
+    }
+
+    // the forward index is copied under the read lock and written outside of it -> writers are only blocked for the copy
+    void snapshot() {
+        Map<Long, String[]> copy;
+        Instant takenAt;
+        lock.readLock().lock();
+        try {
+            dirty = false;
+            takenAt = Instant.now(); // before the copy -> a write racing with it is re-read on the next start
+            copy = new TreeMap<>(documentTerms);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            Path parent = snapshotPath.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, "blog-search", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                Map<String, Integer> dictionary = new LinkedHashMap<>();
+                for (String[] terms : copy.values()) {
+                    for (String term : terms) dictionary.putIfAbsent(term, dictionary.size());
+                }
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(takenAt.toEpochMilli());
+                out.writeInt(dictionary.size());
+                for (String term : dictionary.keySet()) out.writeUTF(term);
+                out.writeInt(copy.size());
+                for (Map.Entry<Long, String[]> document : copy.entrySet()) {
+                    out.writeLong(document.getKey());
+                    out.writeInt(document.getValue().length);
+                    for (String term : document.getValue()) out.writeInt(dictionary.get(term));
+                }
+            }
+            Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("blog search index snapshot written: {} blogs -> {}", copy.size(), snapshotPath);
+        } catch (IOException e) {
+            dirty = true; // retry on the next run
+            log.error("could not write blog search index snapshot to {}", snapshotPath, e);
+        }
+    }
+
+    // returns when the snapshot was taken, null when there is none (or it is unreadable -> full rebuild)
+    Instant loadSnapshot() {
+        if (!Files.exists(snapshotPath)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("ignoring blog search index snapshot {}: unknown format", snapshotPath);
+                return null;
+            }
+            Instant takenAt = Instant.ofEpochMilli(in.readLong());
+            String[] dictionary = new String[in.readInt()];
+            for (int i = 0; i < dictionary.length; i++) dictionary[i] = in.readUTF();
+            int documents = in.readInt();
+            lock.writeLock().lock();
+            try {
+                for (int d = 0; d < documents; d++) {
+                    long id = in.readLong();
+                    String[] terms = new String[in.readInt()];
+                    for (int t = 0; t < terms.length; t++) {
+                        terms[t] = dictionary[in.readInt()];
+                        postings.computeIfAbsent(terms[t], key -> new Postings()).add(id);
+                    }
+                    documentTerms.put(id, terms);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return takenAt;
+        } catch (IOException | RuntimeException e) {
+            log.warn("ignoring unreadable blog search index snapshot {}, rebuilding from the table", snapshotPath, e);
+            lock.writeLock().lock();
+            try {
+                postings.clear();
+                documentTerms.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return null;
+        }
+    }
+
+    // caller holds the write lock
+    private void unindex(Long id) {
+        String[] previous = documentTerms.remove(id);
+        if (previous == null) return;
+        for (String term : previous) {
+            Postings list = postings.get(term);
+            if (list != null && list.remove(id) && list.size == 0) postings.remove(term);
+        }
+    }
+
+    // the author term goes first, reindexWithoutAuthor relies on it
+    private static String[] terms(String title, String content, Long authorId) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (authorId != null) terms.add(AUTHOR_MARKER + authorId.toString());
+        for (String term : tokenize(title)) {
+            terms.add(term);
+            terms.add(TITLE_MARKER + term);
+        }
+        terms.addAll(Arrays.asList(tokenize(content)));
+        return terms.toArray(String[]::new);
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) return new String[0];
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty() && token.length() <= MAX_TERM_LENGTH)
+                .toArray(String[]::new);
+    }
+
+    // sorted, duplicate-free list of blog ids; ids are mostly appended since they come from a sequence
+    static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            if (size == 0 || ids[size - 1] < id) {
+                grow();
+                ids[size++] = id;
+                return;
+            }
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) return;
+            int insertAt = -at - 1;
+            grow();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) return false;
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        long[] copy() {
+            return Arrays.copyOf(ids, size);
+        }
+
+        // keeps the first `count` sorted candidates that are also in this list, returns the new count
+        int retainAll(long[] candidates, int count) {
+            int kept = 0;
+            int j = 0;
+            for (int i = 0; i < count && j < size; i++) {
+                while (j < size && ids[j] < candidates[i]) j++;
+                if (j < size && ids[j] == candidates[i]) candidates[kept++] = candidates[i];
+            }
+            return kept;
+        }
+
+        private void grow() {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.dto.BlogSearchHit;
+import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.objects.UserType;
+import com.example.BlogManager.repositories.BlogRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Full-text search over blog titles and content, ranked by relevance.
+// Backed by the Postgres tsvector column + GIN index, or by the in-process BlogSearchIndex when
+// app.blog-search.engine=index. Either way pages are keyset-paginated on (rank, id) with a BlogCursor.
+// Same visibility as the listings: ADMIN searches every blog, anybody else only their own.
+@Service
+@Timed("service.calls")
+public class BlogSearchService {
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_QUERY_LENGTH = 200;
+    private static final String CURSOR_SORT = "rank";
+
+    private final BlogRepository blogRepository;
+    private final BlogSearchIndex blogSearchIndex;
+    private final BlogService blogService;
+
+    public BlogSearchService(BlogRepository blogRepository, BlogSearchIndex blogSearchIndex, BlogService blogService) {
+        this.blogRepository = blogRepository;
+        this.blogSearchIndex = blogSearchIndex;
+        this.blogService = blogService;
+    }
+
+    // q uses web search syntax: words, "quoted phrases", or, -excluded
+    public Map<String, Object> search(String q, String cursor, int size, String username) {
+        if (q == null || q.isBlank() || q.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("q must be between 1 and " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        BlogCursor after = (cursor == null || cursor.isBlank()) ? null : BlogCursor.decode(cursor);
+        if (after != null && (!after.sortBy().equals(CURSOR_SORT) || after.value() == null)) {
+            throw new IllegalArgumentException("cursor was not issued by search");
+        }
+
+        UserEntity userEntity = blogService.fetchUserDetailsFromDB(username);
+        Long authorId = userEntity.getUserType() == UserType.ADMIN ? null : userEntity.getId(); // null -> every author
+
+        // one extra row (or match) tells us whether another page exists, without a COUNT(*)
+        List<BlogSearchHit> hits;
+        String nextCursor = null;
+        if (blogSearchIndex.isEnabled()) {
+            List<BlogSearchIndex.Match> matches = after == null
+                    ? blogSearchIndex.search(q, authorId, null, 0, size + 1)
+                    : blogSearchIndex.search(q, authorId, parseRank(after.value()), after.id(), size + 1);
+            // decided on the matches, not on the rows found for them -> a blog deleted behind the index's back
+            // makes the page shorter but doesn't end the paging
+            if (matches.size() > size) {
+                matches = matches.subList(0, size);
+                BlogSearchIndex.Match last = matches.get(size - 1);
+                nextCursor = new BlogCursor(CURSOR_SORT, Float.toString(last.rank()), last.id()).encode();
+            }
+            hits = loadRows(matches);
+        } else {
+            long authorFilter = authorId == null ? 0 : authorId;
+            hits = after == null
+                    ? blogRepository.searchFirstPage(q, authorFilter, size + 1)
+                    : blogRepository.searchPageAfter(q, authorFilter, parseRank(after.value()), after.id(), size + 1);
+            if (hits.size() > size) {
+                hits = hits.subList(0, size);
+                BlogSearchHit last = hits.get(size - 1);
+                nextCursor = new BlogCursor(CURSOR_SORT, Float.toString(last.getRank()), last.getId()).encode();
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", hits);
+        response.put("nextCursor", nextCursor);
+        return response;
+    }
+
+    // ids and ranks come from memory, the rows for one page are read by primary key
+    private List<BlogSearchHit> loadRows(List<BlogSearchIndex.Match> matches) {
+        if (matches.isEmpty()) return List.of();
+
+        Map<Long, BlogSearchHit> rows = new HashMap<>();
+        for (BlogSearchHit row : blogRepository.findSearchRowsByIds(matches.stream().map(BlogSearchIndex.Match::id).toList())) {
+            rows.put(row.getId(), row);
+        }
+        List<BlogSearchHit> hits = new ArrayList<>(matches.size());
+        for (BlogSearchIndex.Match match : matches) {
+            BlogSearchHit row = rows.get(match.id());
+            if (row != null) hits.add(new RankedHit(row, match.rank())); // deleted behind the index's back -> skipped
+        }
+        return hits;
+    }
+
+    private static float parseRank(String value) {
+        try {
+            return Float.parseFloat(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("cursor was not issued by search");
+        }
+    }
+
+    private static final class RankedHit implements BlogSearchHit {
+        private final BlogSearchHit row;
+        private final float rank;
+
+        private RankedHit(BlogSearchHit row, float rank) {
+            this.row = row;
+            this.rank = rank;
+        }
+
+        public Long getId() {
+            return row.getId();
+        }
+
+        public String getTitle() {
+            return row.getTitle();
+        }
+
+        public String getAuthorUserId() {
+            return row.getAuthorUserId();
+        }
+
+        public String getSnippet() {
+            return row.getSnippet();
+        }
+
+        public Float getRank() {
+            return rank;
+        }
+    }
+}
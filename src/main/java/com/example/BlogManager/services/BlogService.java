@@ -1,61 +1,120 @@
 package com.example.BlogManager.services;
 
+import com.example.BlogManager.dto.BlogDetail;
+import com.example.BlogManager.dto.BlogSummary;
+import com.example.BlogManager.dto.BlogVersion;
+import com.example.BlogManager.dto.CommentVersion;
+import com.example.BlogManager.dto.UserPrincipal;
+import com.example.BlogManager.exceptions.PreconditionFailedCustomException;
 import com.example.BlogManager.exceptions.ResourceNotFoundCustomException;
 import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.objects.Comment;
 import com.example.BlogManager.objects.UserEntity;
 import com.example.BlogManager.objects.UserType;
 import com.example.BlogManager.repositories.BlogRepository;
+import com.example.BlogManager.repositories.CommentRepository;
 import com.example.BlogManager.repositories.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.lang.reflect.Field;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 
+@Slf4j
 @Service
+@Timed("service.calls")
 public class BlogService {
+    // only columns backed by an index can be sorted on, anything else would be a full scan + sort
+    private static final Set<String> SORTABLE_COLUMNS = Set.of("id", "title");
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    static final int DETAIL_COMMENTS = 20; // first page of comments embedded in a blog detail
+
     private final BlogRepository blogRepository;
+    private final CommentRepository commentRepository;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final BlogPatcher blogPatcher;
+    private final BlogCache blogCache;
+    private final BlogSearchIndex blogSearchIndex;
 
-    private BlogService(BlogRepository blogRepository, UserRepository userRepository) {
+    // not private: @Transactional needs a class-based proxy, which can't subclass a class without a visible constructor
+    BlogService(BlogRepository blogRepository, CommentRepository commentRepository, UserRepository userRepository, PrincipalCache principalCache,
+                        BlogPatcher blogPatcher, BlogCache blogCache, BlogSearchIndex blogSearchIndex) {
         this.blogRepository = blogRepository;
+        this.commentRepository = commentRepository;
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
+        this.blogPatcher = blogPatcher;
+        this.blogCache = blogCache;
+        this.blogSearchIndex = blogSearchIndex;
     }
 
     //TODO ->>> this method should be inside @UserService
     public UserEntity fetchUserDetailsFromDB(String userId) { // username or userId is same across the app
-        System.out.println("current user -> " + userId);
-        //now using the username complete user details are fetched from the db and then added in the blog
-        Optional<UserEntity> user = userRepository.findByUserId(userId);
-        return user.get();
+        log.debug("current user -> {}", userId); // every request passes here, keep it off INFO
+        //now using the username the user is fetched from the db (or the principal cache) and then added in the blog
+        Optional<UserPrincipal> user = principalCache.get(userId, userRepository::findByUserId);
+        return user.get().toEntity(); // a copy, the cached principal itself can't be modified
     }
 
     //create
     public Blog save(Blog blog, String username) {
         UserEntity userEntity = fetchUserDetailsFromDB(username);
         blog.setUserEntity(userEntity);
-        return blogRepository.save(blog);
+        Blog savedBlog = blogRepository.save(blog);
+        blogSearchIndex.index(savedBlog);
+        return savedBlog;
     }
 
-    //find only by blogId
-    public Blog findById(Long id) {
-        Optional<Blog> blog = blogRepository.findById(id);
-        if (blog.isPresent()) {
-            return blog.get();
-        } else {
-            throw new ResourceNotFoundCustomException("blog not found with blog id: " + id);
-        }
+    //find by both blogId and Userid -> blog row served from BlogCache and checked against the owner,
+    //first page of comments read fresh (one keyset query) so comment writes never touch the cache
+    public Optional<BlogDetail> findById(Long id, String username) {
+        return blogCache.get(id, blogRepository::findDetailById)
+                .filter(blog -> blog.authorUserId().equals(username))
+                .map(this::withFirstComments);
     }
 
-    //find by both blogId and Userid
-    public Optional<Blog> findById(Long id, String username) {
-        UserEntity userEntity = fetchUserDetailsFromDB(username);
-        return blogRepository.findByUserEntityIdAndId(userEntity.getId(), id);
+    // representation of a blog just written by updateBlog / partialUpdate
+    public BlogDetail detail(Blog blog) {
+        return withFirstComments(BlogDetail.of(blog));
+    }
+
+    private BlogDetail withFirstComments(BlogDetail blog) {
+        Slice<Comment> page = commentRepository.findPageByBlogIdAfter(blog.id(), 0, PageRequest.of(0, DETAIL_COMMENTS));
+        List<Comment> comments = page.getContent();
+        return blog.withComments(comments, page.hasNext() ? comments.get(comments.size() - 1).getId() : null);
+    }
+
+    // current ETag/Last-Modified inputs of the blog as findById(id, username) would return it, empty if that would be a 404.
+    // version-only: the blog row's version, count and updatedAt and the ids/versions of the embedded comments, no content is loaded
+    public Optional<BlogVersion> currentVersion(Long id, String userId) {
+        return blogRepository.findVersion(id, userId).map(row -> {
+            List<CommentVersion> page = commentRepository.findVersionsByBlogId(id, PageRequest.of(0, DETAIL_COMMENTS + 1));
+            if (page.size() <= DETAIL_COMMENTS) return row.withFirstComments(page, null);
+            return row.withFirstComments(page.subList(0, DETAIL_COMMENTS), page.get(DETAIL_COMMENTS - 1).id());
+        });
+    }
+
+    // existence check without loading the blog or its comments
+    public boolean existsById(Long id) {
+        return blogRepository.existsById(id);
+    }
+
+    // owner or ADMIN, false for a missing blog too so callers answer 404 either way (like findById).
+    // the author comes from the BlogCache entry, the principal is only looked up for someone else's blog
+    public boolean canRead(Long id, String username) {
+        return blogCache.get(id, blogRepository::findDetailById)
+                .map(blog -> blog.authorUserId().equals(username)
+                        || fetchUserDetailsFromDB(username).getUserType() == UserType.ADMIN)
+                .orElse(false);
     }
 
     public Map<String, Object> findAll(int page, int size, String sortBy, String username) {
@@ -64,6 +123,7 @@ public class BlogService {
             return null;
         }
 
+        requireSortable(sortBy);
         Sort sort = Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
         Page<Blog> res = blogRepository.findAll(pageable);
@@ -76,6 +136,108 @@ public class BlogService {
         return response;
     }
 
+    // same paging as findAll but returns BlogSummary rows -> no content column, no comments
+    public Map<String, Object> findAllSummaries(int page, int size, String sortBy, String username) {
+        UserEntity userEntity = fetchUserDetailsFromDB(username);
+        if (userEntity.getUserType() != UserType.ADMIN) { // Only ADMIN can access all the blogs
+            return null;
+        }
+
+        requireSortable(sortBy);
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortBy).ascending());
+        Page<BlogSummary> res = blogRepository.findSummaries(pageable);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", res.getContent());
+        response.put("currentPage", res.getNumber());
+        response.put("totalItems", res.getTotalElements());
+        response.put("totalPages", res.getTotalPages());
+        return response;
+    }
+
+    // keyset pagination: seeks on (sortBy, id) so page N costs the same as page 0 and no COUNT(*) is issued
+    public Map<String, Object> findAllByCursor(String cursor, int size, String sortBy, boolean approximateCount, String username) {
+        UserEntity userEntity = fetchUserDetailsFromDB(username);
+        if (userEntity.getUserType() != UserType.ADMIN) { // Only ADMIN can access all the blogs
+            return null;
+        }
+
+        requireSortable(sortBy);
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        BlogCursor after = (cursor == null || cursor.isBlank()) ? null : BlogCursor.decode(cursor);
+        if (after != null && !after.sortBy().equals(sortBy)) {
+            throw new IllegalArgumentException("cursor was issued for sortBy=" + after.sortBy());
+        }
+
+        List<Blog> data = new ArrayList<>();
+        String nextCursor = null;
+        if (sortBy.equals("id")) {
+            Slice<Blog> slice = blogRepository.findPageAfterId(after == null ? 0 : after.id(), PageRequest.of(0, size));
+            data.addAll(slice.getContent());
+            if (slice.hasNext()) {
+                nextCursor = new BlogCursor(sortBy, null, data.get(data.size() - 1).getId()).encode();
+            }
+        } else {
+            // titled blogs first (title, id), then blogs without a title by id
+            boolean inUntitled = after != null && after.value() == null;
+            if (!inUntitled) {
+                Slice<Blog> titled = after == null
+                        ? blogRepository.findFirstTitledPage(PageRequest.of(0, size))
+                        : blogRepository.findTitledPageAfter(after.value(), after.id(), PageRequest.of(0, size));
+                data.addAll(titled.getContent());
+                if (titled.hasNext()) {
+                    Blog last = data.get(data.size() - 1);
+                    nextCursor = new BlogCursor(sortBy, last.getTitle(), last.getId()).encode();
+                } else if (data.size() == size) {
+                    nextCursor = new BlogCursor(sortBy, null, 0).encode();
+                }
+            }
+            if (nextCursor == null && data.size() < size) {
+                Slice<Blog> untitled = blogRepository.findUntitledPageAfter(inUntitled ? after.id() : 0, PageRequest.of(0, size - data.size()));
+                data.addAll(untitled.getContent());
+                if (untitled.hasNext()) {
+                    nextCursor = new BlogCursor(sortBy, null, data.get(data.size() - 1).getId()).encode();
+                }
+            }
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", data);
+        response.put("nextCursor", nextCursor);
+        if (approximateCount) { // opt-in, read from planner statistics instead of COUNT(*)
+            response.put("approximateTotalItems", blogRepository.estimateRowCount());
+        }
+        return response;
+    }
+
+    // the caller's own blogs as summaries, newest first; pass nextCursor back as cursor for the next page.
+    // any authenticated user, resolved by username inside the query (no principal lookup)
+    public Map<String, Object> findMine(String cursor, int size, String username) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        BlogCursor before = (cursor == null || cursor.isBlank()) ? null : BlogCursor.decode(cursor);
+        if (before != null && !before.sortBy().equals("mine")) {
+            throw new IllegalArgumentException("cursor was issued for sortBy=" + before.sortBy());
+        }
+
+        Slice<BlogSummary> slice = blogRepository.findPageByAuthorBefore(username, before == null ? Long.MAX_VALUE : before.id(), PageRequest.of(0, size));
+        List<BlogSummary> data = slice.getContent();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", data);
+        response.put("nextCursor", slice.hasNext() ? new BlogCursor("mine", null, data.get(data.size() - 1).getId()).encode() : null);
+        return response;
+    }
+
+    private static void requireSortable(String sortBy) {
+        if (!SORTABLE_COLUMNS.contains(sortBy)) {
+            throw new IllegalArgumentException("can't sort by: " + sortBy + ", sortable columns: " + SORTABLE_COLUMNS);
+        }
+    }
+
 
     public Blog deleteBlog(Long id, String username) {
         UserEntity userEntity = fetchUserDetailsFromDB(username);
@@ -86,7 +248,9 @@ public class BlogService {
         if (userEntity.getUserType() == UserType.ADMIN || checkBlog.get().getUserEntity().getUserId().equals(userEntity.getUserId())) {
             return checkBlog.map(getBlog -> {
                 blogRepository.deleteById(id);
-                System.out.println("blog with id " + id + " deleted");
+                blogCache.evict(id);
+                blogSearchIndex.remove(id);
+                log.info("blog with id {} deleted", id);
                 return getBlog;
             }).orElse(null);
         } else {
@@ -94,20 +258,27 @@ public class BlogService {
         }
     }
 
-    //complete update
-    public Blog updateBlog(Long id, Blog updatedBlog, String username) {
+    //complete update; ifMatch (nullable) is the If-Match header -> 412 when the blog changed since the client read it
+    //read + write in one transaction: a concurrent edit in between fails the versioned UPDATE (-> 409) instead of being overwritten
+    @Transactional
+    public Blog updateBlog(Long id, Blog updatedBlog, String username, String ifMatch) {
         //only USER who created the blog can update the blog
         UserEntity userEntity = fetchUserDetailsFromDB(username);
         Optional<Blog> checkBlog = blogRepository.findById(id);
         if (checkBlog.isEmpty()) throw new ResourceNotFoundCustomException("no blog with id: " + id);
 
         if (checkBlog.get().getUserEntity().getUserId().equals(userEntity.getUserId())) {
+            requireIfMatch(id, userEntity.getUserId(), ifMatch);
             return checkBlog
                     .map(blog -> {
                         blog.setTitle(updatedBlog.getTitle());
                         blog.setContent(updatedBlog.getContent());
 
                         Blog savedBlog = blogRepository.save(blog);
+                        afterCommit(() -> {
+                            blogCache.evict(id);
+                            blogSearchIndex.index(savedBlog);
+                        });
                         return blog;
                     })
                     .orElse(null);
@@ -117,31 +288,52 @@ public class BlogService {
         }
     }
 
-    //partial update
-    public Blog partialUpdate(Long id, Map<String, Object> updates, String username) {
+    //partial update; ifMatch and transaction as in updateBlog
+    @Transactional
+    public Blog partialUpdate(Long id, Map<String, Object> updates, String username, String ifMatch) {
         //only USER who created the blog can partially update the blog
         UserEntity userEntity = fetchUserDetailsFromDB(username);
         Optional<Blog> checkBlog = blogRepository.findById(id);
         if (checkBlog.isEmpty()) throw new ResourceNotFoundCustomException("no blog with id: " + id);
 
         if (checkBlog.get().getUserEntity().getUserId().equals(userEntity.getUserId())) {
+            requireIfMatch(id, userEntity.getUserId(), ifMatch);
+            // only whitelisted columns (title, content) can be patched, unknown fields are rejected with 400
+            blogPatcher.apply(checkBlog.get(), updates);
+            Blog savedBlog = blogRepository.save(checkBlog.get());
+            afterCommit(() -> {
+                blogCache.evict(id);
+                blogSearchIndex.index(savedBlog);
+            });
+            return savedBlog;
+        } else {
+            return null;
+        }
+
+    }
 
-            updates.forEach((fieldName, value) -> {
-                try {
-                    Field field = checkBlog.get().getClass().getDeclaredField(fieldName);
-                    field.setAccessible(true);
-                    field.set(checkBlog.get(), value);
-                } catch (NoSuchFieldException e) {
-                    // field does not exist in the entity → ignore
-                } catch (IllegalAccessException e) {
-                    throw new RuntimeException("Failed to update field: " + fieldName, e);
+    // evicting before the commit would let a concurrent read cache the old row again
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
                 }
             });
-
-            return blogRepository.save(checkBlog.get());
         } else {
-            return null;
+            action.run();
         }
+    }
 
+    // current ETag from the version-only queries (no content is loaded), in the caller's transaction;
+    // if the blog changes between this check and the save, @Version rejects the update
+    private void requireIfMatch(Long id, String userId, String ifMatch) {
+        if (ifMatch == null) return;
+        BlogVersion current = currentVersion(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundCustomException("no blog with id: " + id));
+        if (!current.matchesIfMatch(ifMatch)) {
+            throw new PreconditionFailedCustomException("blog " + id + " was modified, current ETag is " + current.etag());
+        }
     }
 }
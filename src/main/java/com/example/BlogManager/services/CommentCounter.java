@@ -0,0 +1,168 @@
+package com.example.BlogManager.services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Maintains blogs.comment_count without a row lock per comment.
+// Comment writes only bump an in-memory LongAdder per blog (striped, so a hot post doesn't make writers contend on one
+// counter either); a scheduled flush writes the accumulated deltas as one JDBC batch -> one UPDATE per touched blog per
+// interval instead of one per comment. Deltas not yet flushed when the process dies are lost, the startup
+// reconciliation recomputes counts that drifted from the comments table - but only once they stayed put for longer
+// than a flush interval, since other nodes may still hold deltas for comments that are already committed.
+@Slf4j
+@Component
+public class CommentCounter {
+    // updated_at moves with the count: the blog's Last-Modified covers its comments too
+    private static final String FLUSH_SQL = "UPDATE blogs SET comment_count = comment_count + ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+    private static final String DRIFT_SQL = "SELECT id, comment_count, (SELECT count(*) FROM comments c WHERE c.blog_id = blogs.id) FROM blogs "
+            + "WHERE comment_count <> (SELECT count(*) FROM comments c WHERE c.blog_id = blogs.id)";
+    // compare-and-set: skipped when the count was flushed or a comment was added/removed since the drift was seen
+    private static final String CORRECT_SQL = "UPDATE blogs SET comment_count = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND comment_count = ? "
+            + "AND (SELECT count(*) FROM comments c WHERE c.blog_id = blogs.id) = ?";
+
+    record Drift(long blogId, long commentCount, long actual) {
+    }
+
+    private final ConcurrentHashMap<Long, LongAdder> deltas = new ConcurrentHashMap<>();
+    private final BlogCache blogCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean reconcileOnStartup;
+    private final Duration settleTime;
+
+    public CommentCounter(BlogCache blogCache,
+                          DataSource dataSource,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.comment-counter.reconcile-on-startup:true}") boolean reconcileOnStartup,
+                          @Value("${app.comment-counter.flush-interval:PT1S}") Duration flushInterval) {
+        this.blogCache = blogCache;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileOnStartup = reconcileOnStartup;
+        this.settleTime = flushInterval.multipliedBy(3); // every node flushes at least once in between, even if late
+    }
+
+    public void increment(Long blogId) {
+        add(blogId, 1);
+    }
+
+    public void decrement(Long blogId) {
+        add(blogId, -1);
+    }
+
+    public void decrement(Long blogId, long comments) {
+        add(blogId, -comments);
+    }
+
+    // not yet flushed delta of a blog (tests / diagnostics)
+    long pending(Long blogId) {
+        LongAdder adder = deltas.get(blogId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    private void add(Long blogId, long delta) {
+        LongAdder adder = deltas.computeIfAbsent(blogId, id -> new LongAdder());
+        adder.add(delta);
+        // flush drops adders that were idle (sum 0); if it dropped ours around the add, nobody reads it anymore ->
+        // move whatever is left in it to the live adder. sumThenReset makes concurrent movers share it without double counting
+        while (deltas.get(blogId) != adder) {
+            long orphaned = adder.sumThenReset();
+            if (orphaned == 0) return;
+            adder = deltas.computeIfAbsent(blogId, id -> new LongAdder());
+            adder.add(orphaned);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.comment-counter.flush-interval:PT1S}")
+    public void flush() {
+        Map<Long, Long> batch = new TreeMap<>(); // id order -> nodes flushing the same blogs lock rows in the same order
+        for (Map.Entry<Long, LongAdder> entry : deltas.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                batch.put(entry.getKey(), delta);
+            } else if (deltas.remove(entry.getKey(), entry.getValue())) {
+                // idle -> keeps the map at the blogs touched since the last flush.
+                // an add that slipped in between the reset and the remove is either picked up here or moved by add() itself
+                long late = entry.getValue().sumThenReset();
+                if (late != 0) add(entry.getKey(), late);
+            }
+        }
+        if (batch.isEmpty()) return;
+
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        batch.forEach((blogId, delta) -> rows.add(new Object[]{delta, blogId}));
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, rows));
+        } catch (RuntimeException e) {
+            batch.forEach(this::add); // keep the deltas for the next run
+            log.error("could not flush comment counts of {} blogs, retrying on the next run", batch.size(), e);
+            return;
+        }
+        batch.keySet().forEach(blogCache::evict); // cached blogs carry the count
+        log.debug("flushed comment counts of {} blogs", batch.size());
+    }
+
+    // a plain recount would race with deltas other nodes haven't flushed yet (their comments are committed, so they'd be
+    // counted by the recount and then once more by the flush) -> look twice, a settle time apart, and only correct blogs
+    // whose count and comments didn't move in between: nothing can be in flight for them
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcile() {
+        if (!reconcileOnStartup) return;
+        long start = System.currentTimeMillis();
+        flush(); // our own deltas
+        List<Drift> drifted = findDrift();
+        if (drifted.isEmpty()) {
+            log.info("comment counts reconciled: nothing drifted ({} ms)", System.currentTimeMillis() - start);
+            return;
+        }
+        try {
+            Thread.sleep(settleTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        int fixed = correct(drifted);
+        log.info("comment counts reconciled: {} of {} drifted blogs corrected in {} ms", fixed, drifted.size(), System.currentTimeMillis() - start);
+    }
+
+    List<Drift> findDrift() {
+        return jdbcTemplate.query(DRIFT_SQL, (rs, row) -> new Drift(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+    }
+
+    // returns the number of blogs corrected
+    int correct(List<Drift> drifted) {
+        List<Object[]> rows = new ArrayList<>(drifted.size());
+        drifted.forEach(drift -> rows.add(new Object[]{drift.actual(), drift.blogId(), drift.commentCount(), drift.actual()}));
+        int[] updated = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(CORRECT_SQL, rows));
+        int fixed = 0;
+        for (int i = 0; i < drifted.size(); i++) {
+            if (updated[i] > 0) {
+                blogCache.evict(drifted.get(i).blogId());
+                fixed++;
+            }
+        }
+        return fixed;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
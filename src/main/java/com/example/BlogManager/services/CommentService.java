@@ -1,31 +1,67 @@
 package com.example.BlogManager.services;
 
 import com.example.BlogManager.exceptions.ResourceNotFoundCustomException;
-import com.example.BlogManager.objects.Blog;
 import com.example.BlogManager.objects.Comment;
 import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.repositories.BlogRepository;
 import com.example.BlogManager.repositories.CommentRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+@Slf4j
 @Service
+@Timed("service.calls")
 public class CommentService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CommentRepository commentRepository;
     private final BlogService blogService;
+    private final BlogRepository blogRepository;
+    private final CommentCounter commentCounter;
 
-    public CommentService(CommentRepository commentRepository, BlogService blogService) {
+    public CommentService(CommentRepository commentRepository, BlogService blogService, BlogRepository blogRepository, CommentCounter commentCounter) {
         this.commentRepository = commentRepository;
         this.blogService = blogService;
+        this.blogRepository = blogRepository;
+        this.commentCounter = commentCounter;
     }
 
     //create
     public Comment save(Comment comment, String username, Long blogId) {
-        Blog blog = blogService.findById(blogId);
+        // existence check + proxy, the blog itself (and the cached detail) is never read
+        if (!blogService.existsById(blogId)) throw new ResourceNotFoundCustomException("blog not found with blog id: " + blogId);
         UserEntity userEntity = blogService.fetchUserDetailsFromDB(username);
+        comment.setVersion(null); // managed by Hibernate
         comment.setUserEntity(userEntity);
-        comment.setBlog(blog);
-        return commentRepository.save(comment);
+        comment.setBlog(blogRepository.getReferenceById(blogId));
+        Comment savedComment = commentRepository.save(comment);
+        commentCounter.increment(blogId); // blogs.comment_count, written (and the cached detail evicted) in the next batched flush
+        return savedComment;
+    }
+
+    // keyset page of a blog's comments ordered by id; pass the returned nextCursor as afterId for the next page.
+    // only the blog's owner or an ADMIN may read them, anyone else gets the same 404 as for a missing blog
+    public Map<String, Object> findByBlog(Long blogId, Long afterId, int size, String username) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (!blogService.canRead(blogId, username)) throw new ResourceNotFoundCustomException("no blog with id: " + blogId);
+
+        Slice<Comment> slice = commentRepository.findPageByBlogIdAfter(blogId, afterId == null ? 0 : afterId, PageRequest.of(0, size));
+        List<Comment> data = slice.getContent();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", data);
+        response.put("nextCursor", slice.hasNext() ? data.get(data.size() - 1).getId() : null);
+        return response;
     }
 
     public Comment deleteComment(Long commentId, String username) {
@@ -40,7 +76,8 @@ public class CommentService {
         ) {
             return checkComment.map(getComment -> {
                 commentRepository.deleteById(commentId);
-                System.out.println("blog with id " + commentId + " deleted");
+                commentCounter.decrement(getComment.getBlog().getId());
+                log.info("comment with id {} deleted", commentId);
                 return getComment;
             }).orElse(null);
         } else {
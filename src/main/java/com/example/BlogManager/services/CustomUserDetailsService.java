@@ -1,31 +1,47 @@
 package com.example.BlogManager.services;
 
+import com.example.BlogManager.dto.UserPrincipal;
 import com.example.BlogManager.objects.UserEntity;
 import com.example.BlogManager.repositories.UserRepository;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        UserEntity user = userRepository.findByUserId(username) //userId and username are used interchangeably in the entire app
+        UserPrincipal user = principalCache.get(username, userRepository::findByUserId) //userId and username are used interchangeably in the entire app
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         return User.builder()
-                .username(user.getUserId())
-                .password(user.getPassword())
-                .roles(user.getUserType().toString())
+                .username(user.userId())
+                .password(user.password())
+                .roles(user.userType().toString())
                 .build();
     }
-}
\ No newline at end of file
+
+    // called by DaoAuthenticationProvider after a successful login whose stored hash uses an outdated BCrypt cost
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserEntity userEntity = userRepository.findByUserId(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User not found"));
+        userEntity.setPassword(newPassword);
+        userRepository.save(userEntity);
+        principalCache.evict(userEntity.getUserId());
+
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+}
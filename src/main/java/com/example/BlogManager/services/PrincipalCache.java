@@ -0,0 +1,56 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.dto.UserPrincipal;
+import com.example.BlogManager.objects.UserEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+// Bounded, TTL-evicted cache of authenticated users keyed by userId.
+// Both the JwtFilter (through CustomUserDetailsService) and BlogService.fetchUserDetailsFromDB
+// resolve the current user on every request, so this keeps the users table off the hot path.
+// Hit/miss/eviction counts are published as cache.* meters tagged cache=principal.
+@Component
+public class PrincipalCache {
+    private final Cache<String, UserPrincipal> cache;
+
+    @Autowired
+    public PrincipalCache(@Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${app.security.principal-cache.ttl:PT5M}") Duration ttl,
+                          ObjectProvider<MeterRegistry> meterRegistry) {
+        this(maxSize, ttl, meterRegistry.getIfAvailable());
+    }
+
+    public PrincipalCache(long maxSize, Duration ttl, MeterRegistry meterRegistry) { // null registry -> no meters
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        if (meterRegistry != null) CaffeineCacheMetrics.monitor(meterRegistry, cache, "principal");
+    }
+
+    // returns the cached user or loads it with the given loader; missing users are not cached
+    public Optional<UserPrincipal> get(String userId, Function<String, Optional<UserEntity>> loader) {
+        return Optional.ofNullable(cache.get(userId, key -> loader.apply(key).map(UserPrincipal::of).orElse(null)));
+    }
+
+    // must be called whenever a user is deleted or its role/password changes
+    public void evict(String userId) {
+        cache.invalidate(userId);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -1,9 +1,14 @@
 package com.example.BlogManager.services;
 
+import com.example.BlogManager.dto.BlogCommentCount;
 import com.example.BlogManager.dto.UserDTO;
 import com.example.BlogManager.objects.JwtUtil;
 import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.repositories.BlogRepository;
+import com.example.BlogManager.repositories.CommentRepository;
 import com.example.BlogManager.repositories.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -12,28 +17,53 @@ import org.springframework.stereotype.Service;
 
 import java.util.*;
 
+@Slf4j
 @Service
+@Timed("service.calls")
 public class UserService {
+    private static final int SUGGESTION_COUNT = 5;
+    private static final int SUGGESTION_CANDIDATES = 20;
+    private static final int MAX_SUGGESTION_ROUNDS = 3;
+
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
+    private final BlogRepository blogRepository;
+    private final BlogCache blogCache;
+    private final BlogSearchIndex blogSearchIndex;
+    private final CommentRepository commentRepository;
+    private final CommentCounter commentCounter;
 
     // Update Constructor to ask Spring for them
     public UserService(UserRepository userRepository,
                        PasswordEncoder passwordEncoder,
-                       AuthenticationManager authenticationManager) {
+                       AuthenticationManager authenticationManager,
+                       PrincipalCache principalCache,
+                       BlogRepository blogRepository,
+                       BlogCache blogCache,
+                       BlogSearchIndex blogSearchIndex,
+                       CommentRepository commentRepository,
+                       CommentCounter commentCounter) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
+        this.principalCache = principalCache;
+        this.blogRepository = blogRepository;
+        this.blogCache = blogCache;
+        this.blogSearchIndex = blogSearchIndex;
+        this.commentRepository = commentRepository;
+        this.commentCounter = commentCounter;
     }
 
     public UserDTO register(UserDTO user) {
-        user.setPassword(passwordEncoder.encode(user.getPassword())); //encode password and save it in the object given
         String username = user.getUserId();
         if (!userRepository.existsByUserId(username)) {
+            // hash only when the user is really created -> conflicts don't spend a BCrypt round
+            user.setPassword(passwordEncoder.encode(user.getPassword())); //encode password and save it in the object given
             UserEntity newUserEntity = new UserEntity(user.getName(), username, user.getPassword(), user.getUserType());
             userRepository.save(newUserEntity);
-            System.out.println("created -> savedUser " + newUserEntity.getId());
+            log.info("created -> savedUser {}", newUserEntity.getId());
 
             // --- SECURITY FIX HERE ---
             // Clear the password before sending the object back to the user
@@ -72,16 +102,21 @@ public class UserService {
     private List<String> generateUniqueUsername(String baseName) {
         String candidate = baseName.replaceAll("\\s+", "").toLowerCase();
         Random random = new Random();
-        int suffix = 0;
         List<String> ret = new ArrayList<>();
-        Set<Integer> set = new HashSet<>();
-        while (ret.size() < 5) {
-            while (userRepository.existsByUserId(candidate + (suffix == 0 ? "" : suffix))
-                    || set.contains(suffix)) {
-                suffix = random.nextInt(10000); // Appends random digits if username exists
+        // checks a whole batch of candidates per query instead of one existsByUserId per candidate.
+        // with 10000 suffixes a batch practically always has 5 free names -> one round-trip per conflict
+        for (int round = 0; round < MAX_SUGGESTION_ROUNDS && ret.size() < SUGGESTION_COUNT; round++) {
+            Set<String> candidates = new LinkedHashSet<>();
+            if (round == 0) candidates.add(candidate); // the normalized name itself may still be free
+            while (candidates.size() < SUGGESTION_CANDIDATES) {
+                candidates.add(candidate + random.nextInt(1, 10000)); // Appends random digits if username exists
+            }
+            candidates.removeAll(ret);
+            candidates.removeAll(userRepository.findTakenUserIds(candidates));
+            for (String free : candidates) {
+                if (ret.size() == SUGGESTION_COUNT) break;
+                ret.add(free);
             }
-            set.add(suffix); // to avoid generation of same no.
-            ret.add(candidate + (suffix == 0 ? "" : suffix));
         }
         return ret;
     }
@@ -93,8 +128,17 @@ public class UserService {
     public UserEntity deleteUser(Long id) {
         Optional<UserEntity> user = userRepository.findById(id);
         return user.map(getUser -> {
+            List<Long> blogIds = blogRepository.findIdsByUserId(id); // the delete cascades to them
+            // ...and to their comments on other users' blogs, which bypasses CommentCounter
+            List<BlogCommentCount> commentsElsewhere = commentRepository.countByUserOnOtherBlogs(id);
             userRepository.deleteById(id);
-            System.out.println("user with id " + id + " deleted");
+            commentsElsewhere.forEach(count -> commentCounter.decrement(count.blogId(), count.comments()));
+            principalCache.evict(getUser.getUserId()); // deleted users must not keep authenticating from the cache
+            for (Long blogId : blogIds) {
+                blogCache.evict(blogId);
+                blogSearchIndex.remove(blogId);
+            }
+            log.info("user with id {} deleted", id);
             return getUser;
         }).orElse(null);
     }
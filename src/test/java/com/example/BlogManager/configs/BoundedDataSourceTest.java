@@ -0,0 +1,44 @@
+package com.example.BlogManager.configs;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class BoundedDataSourceTest {
+
+    @Test
+    void getConnection_PermitsExhausted_FailsAfterTimeout() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        when(pool.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        BoundedDataSource dataSource = new BoundedDataSource(pool, 1, 10, 50);
+
+        Connection held = dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        held.close();
+        assertThat(dataSource.getConnection()).isNotNull(); // permit came back on close
+    }
+
+    @Test
+    void close_CalledTwice_ReleasesPermitOnce() throws Exception {
+        DataSource pool = mock(DataSource.class);
+        Connection physical = mock(Connection.class);
+        when(pool.getConnection()).thenReturn(physical);
+        BoundedDataSource dataSource = new BoundedDataSource(pool, 1, 10, 50);
+
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        Connection again = dataSource.getConnection();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        again.close();
+        verify(physical, times(3)).close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.BlogManager.configs;
+
+import com.example.BlogManager.exceptions.TooManyRequestsCustomException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedPasswordEncoderTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        encoder.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches_ShouldRoundTripAndRecordLatency() {
+        encoder = new BoundedPasswordEncoder(4, 2, 10, meterRegistry);
+
+        String hash = encoder.encode("secret");
+
+        assertThat(encoder.matches("secret", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        assertThat(meterRegistry.get("password.hash").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void upgradeEncoding_ShouldBeTrueForLowerCostHashes() {
+        encoder = new BoundedPasswordEncoder(6, 1, 10, meterRegistry);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding(encoder.encode("secret"))).isFalse();
+    }
+
+    @Test
+    void encode_ShouldRejectWhenPoolAndQueueAreFull() throws Exception {
+        encoder = new BoundedPasswordEncoder(12, 1, 1, meterRegistry); // ~250ms per hash, one running + one queued
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(callers.submit(() -> encoder.encode("secret")));
+            }
+
+            int rejected = 0;
+            for (Future<String> result : results) {
+                try {
+                    result.get(30, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(TooManyRequestsCustomException.class);
+                    rejected++;
+                }
+            }
+            assertThat(rejected).isGreaterThanOrEqualTo(1);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
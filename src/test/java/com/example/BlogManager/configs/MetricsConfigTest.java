@@ -0,0 +1,54 @@
+package com.example.BlogManager.configs;
+
+import com.example.BlogManager.objects.JwtFilter;
+import com.example.BlogManager.repositories.BlogRepository;
+import com.example.BlogManager.repositories.CommentRepository;
+import com.example.BlogManager.services.BlogService;
+import com.example.BlogManager.services.CommentCounter;
+import com.example.BlogManager.services.CommentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MetricsConfigTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void timedService_ShouldRecordOneTimerPerMethod_TaggedWithClassMethodAndException() {
+        BlogService blogService = mock(BlogService.class);
+        when(blogService.canRead(1L, "john")).thenReturn(false);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new CommentService(mock(CommentRepository.class), blogService, mock(BlogRepository.class), mock(CommentCounter.class)));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new MetricsConfig().timedAspect(meterRegistry));
+        CommentService commentService = factory.getProxy();
+
+        assertThatThrownBy(() -> commentService.findByBlog(1L, null, 10, "john")).hasMessageContaining("no blog with id");
+
+        assertThat(meterRegistry.get("service.calls")
+                .tag("class", CommentService.class.getName())
+                .tag("method", "findByBlog")
+                .tag("exception", "ResourceNotFoundCustomException")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void jwtFilter_ShouldTimeValidation_ByOutcome() throws Exception {
+        JwtFilter jwtFilter = new JwtFilter(mock(UserDetailsService.class), meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/blog/1");
+        request.addHeader("Authorization", "Bearer not-a-jwt");
+
+        jwtFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(meterRegistry.get("jwt.validation").tag("outcome", "invalid").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("jwt.validation").tag("outcome", "valid").timer().count()).isZero();
+    }
+}
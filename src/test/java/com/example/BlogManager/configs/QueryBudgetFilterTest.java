@@ -0,0 +1,60 @@
+package com.example.BlogManager.configs;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryBudgetFilterTest {
+
+    @Test
+    void nonProd_ShouldSendQueryCountAndDbTimeHeaders() throws Exception {
+        MockHttpServletResponse response = send(new MockEnvironment(), 3, 4096);
+
+        assertThat(response.getHeader(QueryBudgetFilter.QUERY_COUNT_HEADER)).isEqualTo("3");
+        assertThat(Double.parseDouble(response.getHeader(QueryBudgetFilter.DB_TIME_HEADER))).isEqualTo(6.0); // 3 x 2ms
+    }
+
+    @Test
+    void bodyCommittedByTheHandler_ShouldStillCarryTheHeaders() throws Exception {
+        MockHttpServletResponse response = send(new MockEnvironment(), 2, 16); // 16 byte buffer -> committed while writing
+
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getHeader(QueryBudgetFilter.QUERY_COUNT_HEADER)).isEqualTo("2");
+    }
+
+    @Test
+    void prod_ShouldNotExposeTheNumbers() throws Exception {
+        MockEnvironment prod = new MockEnvironment();
+        prod.setActiveProfiles("prod");
+
+        MockHttpServletResponse response = send(prod, 3, 4096);
+
+        assertThat(response.getHeader(QueryBudgetFilter.QUERY_COUNT_HEADER)).isNull();
+        assertThat(response.getHeader(QueryBudgetFilter.DB_TIME_HEADER)).isNull();
+    }
+
+    @Test
+    void statsScope_ShouldEndWithTheRequest() throws Exception {
+        send(new MockEnvironment(), 1, 4096);
+
+        QueryStats.record(1); // no request in flight -> ignored
+        assertThat(QueryStats.measure(() -> null).stats().getQueries()).isZero();
+    }
+
+    // fake handler: "executes" the given number of 2ms statements, then writes a body
+    private static MockHttpServletResponse send(MockEnvironment environment, int queries, int bufferSize) throws Exception {
+        QueryBudgetFilter filter = new QueryBudgetFilter(environment, 2, Duration.ofMillis(100));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setBufferSize(bufferSize);
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/blog/1"), response, (req, res) -> {
+            for (int i = 0; i < queries; i++) QueryStats.record(2_000_000);
+            res.getWriter().write("{\"data\":\"a body longer than sixteen bytes\"}");
+        });
+        return response;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.BlogManager.configs;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// N+1 guard for tests: runs the action and fails if it executed more SQL statements than allowed.
+// Counts what Hibernate executes (QueryStatsListener), so lazy loads triggered inside the action are included.
+public final class QueryCountAssertions {
+    private QueryCountAssertions() {
+    }
+
+    public static <T> T assertMaxQueries(int max, Supplier<T> action) {
+        QueryStats.Measured<T> measured = QueryStats.measure(action);
+        assertThat(measured.stats().getQueries())
+                .as("SQL statements executed (query budget %d)", max)
+                .isLessThanOrEqualTo(max);
+        return measured.result();
+    }
+
+    public static void assertMaxQueries(int max, Runnable action) {
+        assertMaxQueries(max, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
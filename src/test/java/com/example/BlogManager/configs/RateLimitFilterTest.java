@@ -0,0 +1,128 @@
+package com.example.BlogManager.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties(true, 1000, Duration.ofMinutes(10), List.of(
+                new RateLimitProperties.Rule("POST", "/api/user/auth/**", 2, Duration.ofMinutes(1)),
+                new RateLimitProperties.Rule("POST", "/api/comment/**", 3, Duration.ofSeconds(3))));
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        filter = new RateLimitFilter(properties, objectMapper, meterRegistry, now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void overTheLimit_ShouldAnswer429WithRetryAfter_UntilATokenIsRefilled() throws Exception {
+        authenticate("john");
+        for (int i = 0; i < 3; i++) {
+            assertThat(send("POST", "/api/comment/1", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+
+        MockHttpServletResponse rejected = send("POST", "/api/comment/1", "10.0.0.1");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(rejected.getContentAsString()).contains("\"status\":429");
+        assertThat(meterRegistry.get("http.server.requests.rate.limited").tag("rule", "POST /api/comment/**").counter().count()).isEqualTo(1);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1)); // one token back (3 per 3s)
+        assertThat(send("POST", "/api/comment/1", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send("POST", "/api/comment/1", "10.0.0.1").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void authenticatedCalls_ShouldBeKeyedOnTheUser_NotTheAddress() throws Exception {
+        authenticate("john");
+        for (int i = 0; i < 3; i++) send("POST", "/api/comment/1", "10.0.0." + i); // same user, changing IPs
+        assertThat(send("POST", "/api/comment/2", "10.0.0.9").getStatus()).isEqualTo(429);
+
+        authenticate("jane");
+        assertThat(send("POST", "/api/comment/1", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void authRoutes_ShouldBeKeyedOnTheAddress() throws Exception {
+        send("POST", "/api/user/auth/login", "10.0.0.1");
+        send("POST", "/api/user/auth/login", "10.0.0.1");
+
+        MockHttpServletResponse rejected = send("POST", "/api/user/auth/login", "10.0.0.1");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("30"); // 2 per minute -> next token in 30s
+        assertThat(send("POST", "/api/user/auth/login", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void unmatchedRoutes_ShouldNotBeLimited() throws Exception {
+        authenticate("john");
+        for (int i = 0; i < 10; i++) {
+            assertThat(send("GET", "/api/comment/blog/1", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void tokenBucket_UnderContention_ShouldHandOutExactlyItsCapacity() throws Exception {
+        TokenBucket bucket = new TokenBucket(500, Duration.ofHours(1), 0);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> callers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            callers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                    if (bucket.tryAcquire(0) == 0) granted.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> caller : callers) caller.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(granted.get()).isEqualTo(500);
+    }
+
+    private MockHttpServletResponse send(String method, String path, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    private static void authenticate(String userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userId, null, AuthorityUtils.NO_AUTHORITIES));
+    }
+}
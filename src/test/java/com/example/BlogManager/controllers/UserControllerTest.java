@@ -1,14 +1,17 @@
 package com.example.BlogManager.controllers;
 
 import com.example.BlogManager.dto.UserDTO;
+import com.example.BlogManager.exceptions.TooManyRequestsCustomException;
 import com.example.BlogManager.objects.UserEntity;
 import com.example.BlogManager.objects.UserType;
 import com.example.BlogManager.services.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -21,11 +24,13 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class) // 1. Slice test: Only loads UserController
 @AutoConfigureMockMvc(addFilters = false) // 2. Security: Disable Spring Security filters (Login/Auth) for this unit test
+@Import(SimpleMeterRegistry.class) // the slice has no metrics auto-configuration, JwtFilter still needs a registry
 class UserControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -88,6 +93,22 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.message").value("username already exists"));
     }
 
+    @Test
+    void register_ShouldReturn429WithRetryAfter_WhenPasswordHashingIsSaturated() throws Exception {
+        // GIVEN
+        UserDTO inputUser = new UserDTO("John", "john123", "pass", UserType.USER, null);
+        when(userService.register(any(UserDTO.class)))
+                .thenThrow(new TooManyRequestsCustomException("password hashing is saturated, retry later"));
+
+        // WHEN & THEN
+        mockMvc.perform(post("/api/user/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(inputUser)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value(429));
+    }
+
     @Test
     void login_ShouldReturn200_WhenCredentialsAreValid() throws Exception {
         // GIVEN
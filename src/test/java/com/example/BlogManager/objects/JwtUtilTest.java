@@ -0,0 +1,28 @@
+package com.example.BlogManager.objects;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+
+class JwtUtilTest {
+
+    @Test
+    void validateToken_ReturnsSubject_OnColdAndWarmPath() {
+        String token = JwtUtil.generateToken("john");
+
+        assertThat(JwtUtil.validateTokenAndGetUsername(token)).isEqualTo("john"); // verified + cached
+        assertThat(JwtUtil.validateTokenAndGetUsername(token)).isEqualTo("john"); // served from cache
+    }
+
+    @Test
+    void validateToken_TamperedToken_IsRejectedEvenIfOriginalIsCached() {
+        String token = JwtUtil.generateToken("john");
+        JwtUtil.validateTokenAndGetUsername(token);
+
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> JwtUtil.validateTokenAndGetUsername(tampered))
+                .isInstanceOf(RuntimeException.class);
+    }
+}
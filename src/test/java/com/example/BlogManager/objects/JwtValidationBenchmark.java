@@ -0,0 +1,42 @@
+package com.example.BlogManager.objects;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Cold (full HMAC verification) vs warm (verified-token cache hit) JWT validation.
+// Run after `mvn test-compile`:
+//   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+//        com.example.BlogManager.objects.JwtValidationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+    private String token;
+
+    @Setup
+    public void setUp() {
+        token = JwtUtil.generateToken("bench-user");
+        JwtUtil.validateTokenAndGetUsername(token); // prime the cache for the warm path
+    }
+
+    @Benchmark
+    public String cold() {
+        return JwtUtil.parseAndVerify(token).getSubject();
+    }
+
+    @Benchmark
+    public String warm() {
+        return JwtUtil.validateTokenAndGetUsername(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtValidationBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.BlogManager.repositories;
+
+import com.example.BlogManager.dto.BlogDetail;
+import com.example.BlogManager.dto.BlogSearchHit;
+import com.example.BlogManager.dto.BlogSummary;
+import com.example.BlogManager.dto.BlogVersion;
+import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.objects.Comment;
+import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.objects.UserType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Guards against N+1 regressions: counts the JDBC statements Hibernate prepares while a page of blogs
+// (and their comments, as Jackson would touch them) is loaded. Runs against the embedded test database.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BlogRepositoryQueryCountTest {
+    private static final int BLOGS = 20;
+
+    @Autowired
+    private BlogRepository blogRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UserEntity author;
+
+    @BeforeEach
+    void setUp() {
+        author = new UserEntity("Author", "author", "hash", UserType.USER);
+        entityManager.persist(author);
+        for (int i = 0; i < BLOGS; i++) {
+            Blog blog = new Blog("title " + i, "content " + i);
+            blog.setUserEntity(author);
+            entityManager.persist(blog);
+            for (int c = 0; c < 3; c++) {
+                entityManager.persist(Comment.builder().content("comment " + c).blog(blog).userEntity(author).build());
+            }
+        }
+        entityManager.flush();
+        entityManager.createNativeQuery("UPDATE blogs SET comment_count = 3").executeUpdate(); // maintained outside of JPA (CommentCounter)
+        entityManager.clear();
+    }
+
+    @Test
+    void listingPage_ShouldLoadCommentsInOneBatch() {
+        Statistics statistics = statistics();
+
+        List<Blog> page = blogRepository.findAll(PageRequest.of(0, BLOGS + 1)).getContent();
+        page.forEach(blog -> blog.getComments().size()); // what serialization does
+
+        assertThat(page).hasSize(BLOGS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2); // blogs + one batched comment query
+    }
+
+    @Test
+    void keysetPage_ShouldLoadCommentsInOneBatch() {
+        Statistics statistics = statistics();
+
+        List<Blog> page = blogRepository.findPageAfterId(0, PageRequest.of(0, BLOGS)).getContent();
+        page.forEach(blog -> blog.getComments().size());
+
+        assertThat(page).hasSize(BLOGS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void detail_ShouldBeOneStatementWithoutEntitiesOrComments() {
+        Long blogId = blogRepository.findPageAfterId(0, PageRequest.of(0, 1)).getContent().get(0).getId();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        Optional<BlogDetail> blog = blogRepository.findDetailById(blogId);
+
+        assertThat(blog).isPresent();
+        assertThat(blog.get().authorUserId()).isEqualTo("author");
+        assertThat(blog.get().commentCount()).isEqualTo(3);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void summaries_ShouldBeServedWithoutLoadingBlogsOrComments() {
+        Statistics statistics = statistics();
+
+        List<BlogSummary> page = blogRepository.findSummaries(PageRequest.of(0, BLOGS + 1, Sort.by("title"))).getContent();
+
+        assertThat(page).hasSize(BLOGS);
+        assertThat(page.get(0).getAuthorUserId()).isEqualTo("author");
+        assertThat(page.get(0).getCommentCount()).isEqualTo(3);
+        assertThat(page.get(0).getSnippet()).isEqualTo("content 0");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void authorPages_ShouldSeekNewestFirstAndSkipOtherAuthors() {
+        UserEntity other = new UserEntity("Other", "other", "hash", UserType.USER);
+        entityManager.persist(other);
+        Blog foreign = new Blog("foreign", "not mine");
+        foreign.setUserEntity(other);
+        entityManager.persist(foreign);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        List<Long> ids = new ArrayList<>();
+        long before = Long.MAX_VALUE;
+        Slice<BlogSummary> page;
+        do {
+            page = blogRepository.findPageByAuthorBefore("author", before, PageRequest.of(0, 7));
+            page.forEach(summary -> ids.add(summary.getId()));
+            before = ids.get(ids.size() - 1);
+        } while (page.hasNext());
+
+        assertThat(ids).hasSize(BLOGS).doesNotContain(foreign.getId()).isSortedAccordingTo(Comparator.reverseOrder());
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3); // one statement per page
+    }
+
+    @Test
+    void searchRowsByIds_ShouldBeOneStatementWithoutEntities() {
+        List<Long> ids = blogRepository.findPageAfterId(0, PageRequest.of(0, 3)).getContent().stream().map(Blog::getId).toList();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        List<BlogSearchHit> rows = blogRepository.findSearchRowsByIds(ids);
+
+        assertThat(rows).hasSize(3);
+        assertThat(rows.get(0).getAuthorUserId()).isEqualTo("author");
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void version_ShouldMatchTheLoadedBlogWithoutLoadingIt() {
+        Long blogId = blogRepository.findPageAfterId(0, PageRequest.of(0, 1)).getContent().get(0).getId();
+        entityManager.clear();
+        Statistics statistics = statistics();
+
+        Optional<BlogVersion> version = blogRepository.findVersion(blogId, "author");
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        BlogDetail detail = blogRepository.findDetailById(blogId).orElseThrow();
+        assertThat(version).contains(new BlogVersion(detail.version(), detail.commentCount(), detail.updatedAt()));
+        assertThat(blogRepository.findVersion(blogId, "someone-else")).isEmpty();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.BlogManager.response;
+
+import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.objects.Comment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serializing an ApiResponseWrapper<Blog> (10 comments): plain ObjectMapper vs ApiResponseWrapperConverter.
+// Compare allocations with `-prof gc` (gc.alloc.rate.norm = bytes per response).
+// Run after `mvn test-compile`:
+//   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+//        com.example.BlogManager.response.ApiResponseWrapperBenchmark -prof gc
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiResponseWrapperBenchmark {
+    private ObjectMapper objectMapper;
+    private ApiResponseWrapperConverter converter;
+    private Blog blog;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        converter = new ApiResponseWrapperConverter(objectMapper);
+        blog = new Blog("Benchmark title", "content ".repeat(100));
+        blog.setId(1L);
+        List<Comment> comments = new ArrayList<>();
+        for (long i = 0; i < 10; i++) {
+            comments.add(Comment.builder().id(i).content("comment " + i).build());
+        }
+        blog.setComments(comments);
+        out = new ByteArrayOutputStream(16 * 1024);
+    }
+
+    @Benchmark
+    public int objectMapper() throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, new ApiResponseWrapper<>(LocalDateTime.now(), 200, "Fetched blog with id: 1", null, blog));
+        return out.size();
+    }
+
+    @Benchmark
+    public int envelopeConverter() throws IOException {
+        out.reset();
+        converter.writeTo(new ApiResponseWrapper<>(LocalDateTime.now(), 200, "Fetched blog with id: 1", null, blog), out);
+        return out.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ApiResponseWrapperBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.BlogManager.response;
+
+import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.objects.Comment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ApiResponseWrapperConverterTest {
+    // configured like Spring Boot's ObjectMapper (java.time module, ISO dates instead of timestamps)
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    private final ApiResponseWrapperConverter converter = new ApiResponseWrapperConverter(objectMapper);
+
+    @Test
+    void blogPayload_ShouldMatchObjectMapperOutput() throws Exception {
+        Blog blog = new Blog("Title \"quoted\"", "multi\nline content with ünïcødé and \u0001 control");
+        blog.setId(42L);
+        blog.setComments(List.of(Comment.builder().id(7L).content("first!").build()));
+
+        assertSameJson(new ApiResponseWrapper<>(LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_000_000), 200, "Fetched blog", null, blog));
+    }
+
+    @Test
+    void envelopeVariants_ShouldMatchObjectMapperOutput() throws Exception {
+        assertSameJson(new ApiResponseWrapper<>(LocalDateTime.of(2024, 5, 1, 10, 15), 404, null, "not found: </script>", null));
+        assertSameJson(new ApiResponseWrapper<>(LocalDateTime.of(2024, 5, 1, 10, 15, 0, 1), 200, "map", null, Map.of("page", 1, "data", List.of())));
+        assertSameJson(new ApiResponseWrapper<>(null, 500, null, null, "plain string"));
+        assertSameJson(new ApiResponseWrapper<>(LocalDateTime.now(), 201, "", "", List.of(1, 2, 3)));
+        assertSameJson(new ApiResponseWrapper<>(LocalDateTime.of(987, 12, 31, 23, 59, 59, 100_000), 200, null, null, null));
+        assertSameJson(new ApiResponseWrapper<>(LocalDateTime.of(12345, 1, 1, 0, 0), 200, null, null, null));
+    }
+
+    @Test
+    void numericTimestampMapper_ShouldBeLeftToJackson() {
+        ApiResponseWrapperConverter onDefaultMapper = new ApiResponseWrapperConverter(new ObjectMapper());
+
+        assertThat(onDefaultMapper.canWrite(ApiResponseWrapper.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canWrite(ApiResponseWrapper.class, MediaType.APPLICATION_JSON)).isTrue();
+    }
+
+    private void assertSameJson(ApiResponseWrapper<?> response) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        converter.writeTo(response, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(objectMapper.writeValueAsString(response));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.dto.BulkItemResult;
+import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.objects.UserType;
+import com.example.BlogManager.repositories.BlogRepository;
+import com.example.BlogManager.repositories.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(BlogBulkService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // every batch commits on its own
+class BlogBulkServiceTest {
+    @Autowired
+    private BlogBulkService blogBulkService;
+    @Autowired
+    private BlogRepository blogRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockitoBean
+    private BlogService blogService;
+    @MockitoBean
+    private BlogSearchIndex blogSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity author = userRepository.save(new UserEntity("Author", "author", "hash", UserType.USER));
+        when(blogService.fetchUserDetailsFromDB("author")).thenReturn(author);
+    }
+
+    @AfterEach
+    void tearDown() {
+        blogRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void saveAll_ShouldInsertInBatchesAndReportEveryItem() throws Exception {
+        String body = IntStream.range(0, 120)
+                .mapToObj(i -> "{\"title\":\"t" + i + "\",\"content\":\"c" + i + "\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<BulkItemResult> results = run(body, 100);
+
+        assertThat(results).hasSize(120);
+        assertThat(results).extracting(BulkItemResult::getIndex).isSorted();
+        assertThat(results).allSatisfy(result -> assertThat(result.getId()).isNotNull());
+        assertThat(blogRepository.count()).isEqualTo(120);
+        // 120 rows in batches of hibernate.jdbc.batch_size=50 -> a handful of JDBC batches, not 120 single inserts
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+
+    @Test
+    void saveAll_InvalidElement_ShouldOnlyFailThatElement() throws Exception {
+        String body = "[{\"title\":\"ok\"},{\"title\":{\"nested\":true}},{\"title\":\"ok too\",\"id\":999999}]";
+
+        List<BulkItemResult> results = run(body, null);
+
+        assertThat(results).extracting(BulkItemResult::getIndex).containsExactly(0, 1, 2);
+        assertThat(results.get(0).getId()).isNotNull();
+        assertThat(results.get(1).getError()).startsWith("invalid blog");
+        assertThat(results.get(2).getId()).isNotEqualTo(999999L); // client ids are ignored
+    }
+
+    @Test
+    void saveAll_InvalidElementsInEveryWindow_ShouldStayInInputOrder() throws Exception {
+        String body = IntStream.range(0, 7)
+                .mapToObj(i -> i % 3 == 1 ? "{\"title\":[]}" : "{\"title\":\"t" + i + "\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        List<BulkItemResult> results = run(body, 2);
+
+        assertThat(results).extracting(BulkItemResult::getIndex).containsExactly(0, 1, 2, 3, 4, 5, 6);
+        assertThat(results).filteredOn(result -> result.getError() != null).extracting(BulkItemResult::getIndex).containsExactly(1, 4);
+        assertThat(blogRepository.count()).isEqualTo(5);
+    }
+
+    @Test
+    void saveAll_BodyBreaksOffMidArray_ShouldKeepParsedItemsAndReportWhereItStopped() throws Exception {
+        List<BulkItemResult> results = run("[{\"title\":\"a\"},{\"title\":\"b\"},{\"title\":", 10);
+
+        assertThat(results).extracting(BulkItemResult::getIndex).containsExactly(0, 1, 2);
+        assertThat(results.get(2).getError()).startsWith("malformed body");
+        assertThat(blogRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void saveAll_NotAnArray_ShouldBeRejectedBeforeStreaming() {
+        assertThatThrownBy(() -> blogBulkService.saveAll(stream("{\"title\":\"a\"}"), null, "author"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // runs the streamed body the way the container would and reads back its NDJSON lines
+    private List<BulkItemResult> run(String body, Integer batchSize) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        blogBulkService.saveAll(stream(body), batchSize, "author").writeTo(out);
+        List<BulkItemResult> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(line, BulkItemResult.class));
+        }
+        return results;
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
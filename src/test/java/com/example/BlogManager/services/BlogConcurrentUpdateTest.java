@@ -0,0 +1,90 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.dto.BlogDetail;
+import com.example.BlogManager.dto.BlogVersion;
+import com.example.BlogManager.exceptions.PreconditionFailedCustomException;
+import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.objects.UserType;
+import com.example.BlogManager.repositories.BlogRepository;
+import com.example.BlogManager.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Many writers increment a counter kept in a blog's title through PATCH with If-Match, retrying on 409/412.
+// Without optimistic locking some increments would be overwritten; with it, every increment must survive.
+@DataJpaTest
+@Import({BlogService.class, PrincipalCache.class, BlogPatcher.class, BlogCache.class, BlogSearchIndex.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // every update commits on its own, like real requests
+class BlogConcurrentUpdateTest {
+    private static final int WRITERS = 16;
+    private static final int INCREMENTS_PER_WRITER = 20;
+
+    @Autowired
+    private BlogService blogService;
+    @Autowired
+    private BlogRepository blogRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        blogRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentPatches_ShouldNotLoseUpdates() throws Exception {
+        UserEntity owner = userRepository.save(new UserEntity("Owner", "owner", "hash", UserType.USER));
+        Blog blog = new Blog("0", "counter");
+        blog.setUserEntity(owner);
+        Long id = blogRepository.save(blog).getId();
+
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < INCREMENTS_PER_WRITER; i++) {
+                    while (true) {
+                        BlogDetail current = blogRepository.findDetailById(id).orElseThrow();
+                        int next = Integer.parseInt(current.title()) + 1;
+                        try {
+                            blogService.partialUpdate(id, Map.of("title", String.valueOf(next)), "owner", BlogVersion.of(current).etag());
+                            break;
+                        } catch (OptimisticLockingFailureException | PreconditionFailedCustomException e) {
+                            conflicts.incrementAndGet(); // re-read and retry, as a client would on 409/412
+                        }
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> writer : writers) writer.get(2, TimeUnit.MINUTES);
+        pool.shutdown();
+
+        Blog result = blogRepository.findById(id).orElseThrow();
+        int total = WRITERS * INCREMENTS_PER_WRITER;
+        assertThat(Integer.parseInt(result.getTitle())).isEqualTo(total);
+        assertThat(result.getVersion()).isEqualTo(total);
+        assertThat(result.getContent()).isEqualTo("counter");
+        assertThat(conflicts.get()).isPositive(); // the test really raced
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.objects.Comment;
+import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.objects.UserType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "app.blog-export.fetch-size=2")
+@Import(BlogExportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class BlogExportServiceTest {
+    @Autowired
+    private BlogExportService blogExportService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockitoBean
+    private BlogService blogService;
+
+    private UserEntity admin;
+
+    @BeforeEach
+    void setUp() {
+        admin = new UserEntity("Admin", "admin", "hash", UserType.ADMIN);
+        UserEntity reader = new UserEntity("Reader", "reader", "hash", UserType.USER);
+        entityManager.persist(admin);
+        entityManager.persist(reader);
+        for (int i = 0; i < 3; i++) {
+            Blog blog = new Blog("title " + i, "content \"" + i + "\"\nsecond line");
+            blog.setUserEntity(admin);
+            entityManager.persist(blog);
+            for (int c = 0; c < i; c++) { // blog 0 has no comments
+                entityManager.persist(Comment.builder().content("comment " + c).blog(blog).userEntity(reader).build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void export_ShouldWriteOneLinePerBlogWithItsComments() throws Exception {
+        when(blogService.fetchUserDetailsFromDB("admin")).thenReturn(admin);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        blogExportService.export("admin").writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        List<JsonNode> blogs = new ArrayList<>();
+        for (String line : lines) blogs.add(objectMapper.readTree(line));
+
+        assertThat(blogs).hasSize(3);
+        assertThat(blogs).extracting(blog -> blog.get("title").asText()).containsExactly("title 0", "title 1", "title 2");
+        assertThat(blogs.get(0).get("content").asText()).isEqualTo("content \"0\"\nsecond line");
+        assertThat(blogs.get(0).get("authorUserId").asText()).isEqualTo("admin");
+        assertThat(blogs).extracting(blog -> blog.get("comments").size()).containsExactly(0, 1, 2);
+        assertThat(blogs.get(2).get("comments").get(1).get("authorUserId").asText()).isEqualTo("reader");
+    }
+
+    @Test
+    void export_NonAdmin_ShouldBeRefused() {
+        UserEntity user = new UserEntity("User", "user", "hash", UserType.USER);
+        when(blogService.fetchUserDetailsFromDB("user")).thenReturn(user);
+
+        assertThat(blogExportService.export("user")).isNull();
+    }
+}
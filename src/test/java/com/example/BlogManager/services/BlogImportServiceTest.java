@@ -0,0 +1,167 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.dto.BlogSearchHit;
+import com.example.BlogManager.dto.ImportReport;
+import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.objects.UserType;
+import com.example.BlogManager.repositories.BlogRepository;
+import com.example.BlogManager.repositories.CommentRepository;
+import com.example.BlogManager.repositories.ImportCheckpointRepository;
+import com.example.BlogManager.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import({BlogImportService.class, BlogSearchService.class, BlogImportServiceTest.SearchIndexConfig.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // the writer thread commits every batch on its own
+class BlogImportServiceTest {
+    private static final String HASH = "$2a$10$abcdefghijklmnopqrstuu7nH0nEwHq5SLlK6Pn2B4vMy9bHqP1/e";
+
+    @Autowired
+    private BlogImportService blogImportService;
+    @Autowired
+    private BlogRepository blogRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ImportCheckpointRepository checkpointRepository;
+    @Autowired
+    private BlogSearchService blogSearchService;
+    @MockitoBean
+    private BlogService blogService;
+
+    // the real in-process index, so imported blogs can be searched the way their authors would
+    @TestConfiguration
+    static class SearchIndexConfig {
+        @Bean
+        BlogSearchIndex blogSearchIndex(BlogRepository blogRepository) throws IOException {
+            Path snapshot = Files.createTempDirectory("blog-import-test").resolve("blog-search.idx");
+            return new BlogSearchIndex("index", snapshot, Duration.ZERO, blogRepository);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        UserEntity admin = userRepository.save(new UserEntity("Admin", "admin", HASH, UserType.ADMIN));
+        when(blogService.fetchUserDetailsFromDB("admin")).thenReturn(admin);
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        blogRepository.deleteAll();
+        userRepository.deleteAll();
+        checkpointRepository.deleteAll();
+    }
+
+    @Test
+    void import_ShouldCreateUsersBlogsAndCommentsAndRejectBadLines() throws Exception {
+        String body = String.join("\n",
+                "{\"type\":\"user\",\"userId\":\"jane\",\"name\":\"Jane\",\"password\":\"" + HASH + "\"}",
+                "{\"title\":\"first\",\"content\":\"c1\",\"authorUserId\":\"jane\",\"comments\":[{\"content\":\"hi\",\"authorUserId\":\"admin\"}]}",
+                "not json",
+                "{\"title\":\"second\",\"content\":\"c2\",\"authorUserId\":\"nobody\"}",
+                "",
+                "{\"type\":\"blog\",\"title\":\"third\",\"content\":\"c3\",\"authorUserId\":\"admin\"}");
+
+        ImportReport report = blogImportService.importNdjson(stream(body), null, 2, "admin");
+
+        assertThat(report.isCompleted()).isTrue();
+        assertThat(report.getLinesRead()).isEqualTo(6);
+        assertThat(report.getLastCommittedLine()).isEqualTo(6);
+        assertThat(report.getUsersCreated()).isEqualTo(1);
+        assertThat(report.getBlogsCreated()).isEqualTo(2);
+        assertThat(report.getCommentsCreated()).isEqualTo(1);
+        assertThat(report.getLinesRejected()).isEqualTo(2);
+        assertThat(report.getRejectedLines()).anyMatch(line -> line.startsWith("line 3"))
+                .anyMatch(line -> line.startsWith("line 4: unknown author"));
+        assertThat(userRepository.findByUserId("jane")).isPresent();
+        assertThat(blogRepository.count()).isEqualTo(2);
+        assertThat(commentRepository.count()).isEqualTo(1);
+
+        // imported ids came from blogs_seq in Hibernate's blocks -> regular inserts don't collide with them
+        Blog saved = new Blog("after import", "x");
+        saved.setUserEntity(userRepository.findByUserId("admin").orElseThrow());
+        blogRepository.save(saved);
+        assertThat(blogRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void import_ImportedBlog_ShouldBeFoundByItsNonAdminAuthor() throws Exception {
+        String body = String.join("\n",
+                "{\"type\":\"user\",\"userId\":\"jane\",\"name\":\"Jane\",\"password\":\"" + HASH + "\"}",
+                "{\"title\":\"imported pasta\",\"content\":\"recipe\",\"authorUserId\":\"jane\"}");
+
+        blogImportService.importNdjson(stream(body), null, null, "admin");
+        UserEntity jane = userRepository.findByUserId("jane").orElseThrow();
+        when(blogService.fetchUserDetailsFromDB("jane")).thenReturn(jane);
+
+        Map<String, Object> result = blogSearchService.search("pasta", null, 10, "jane");
+
+        assertThat((List<?>) result.get("data")).singleElement()
+                .satisfies(hit -> assertThat(((BlogSearchHit) hit).getTitle()).isEqualTo("imported pasta"));
+    }
+
+    @Test
+    void import_FailedBatch_ShouldResumeAfterLastCheckpoint() throws Exception {
+        String tooLong = "x".repeat(300); // comments.content is varchar(255)
+        String broken = String.join("\n",
+                "{\"title\":\"one\",\"authorUserId\":\"admin\"}",
+                "{\"title\":\"two\",\"authorUserId\":\"admin\"}",
+                "{\"title\":\"three\",\"authorUserId\":\"admin\",\"comments\":[{\"content\":\"" + tooLong + "\",\"authorUserId\":\"admin\"}]}",
+                "{\"title\":\"four\",\"authorUserId\":\"admin\"}");
+
+        ImportReport failed = blogImportService.importNdjson(stream(broken), "job-1", 1, "admin");
+
+        assertThat(failed.isCompleted()).isFalse();
+        assertThat(failed.getError()).isNotNull();
+        assertThat(failed.getLastCommittedLine()).isEqualTo(2);
+        assertThat(blogRepository.count()).isEqualTo(2);
+
+        ImportReport resumed = blogImportService.importNdjson(stream(broken.replace(tooLong, "fixed")), "job-1", 1, "admin");
+
+        assertThat(resumed.isCompleted()).isTrue();
+        assertThat(resumed.getLinesSkipped()).isEqualTo(2);
+        assertThat(resumed.getBlogsCreated()).isEqualTo(2);
+        assertThat(blogRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    void import_NonAdmin_ShouldBeRefused() throws Exception {
+        UserEntity user = userRepository.save(new UserEntity("User", "user", HASH, UserType.USER));
+        when(blogService.fetchUserDetailsFromDB("user")).thenReturn(user);
+
+        assertThat(blogImportService.importNdjson(stream("{}"), null, null, "user")).isNull();
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.objects.Blog;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Old reflective PATCH path (getDeclaredField + setAccessible per key) vs the precompiled BlogPatcher.
+// Run after `mvn test-compile`:
+//   java -cp "target/test-classes:target/classes:$(mvn -q dependency:build-classpath -Dmdep.outputFile=/dev/stdout)" \
+//        com.example.BlogManager.services.BlogPatchBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlogPatchBenchmark {
+    private final BlogPatcher patcher = new BlogPatcher();
+    private final Map<String, Object> updates = Map.of("title", "patched title", "content", "patched content");
+
+    @Benchmark
+    public Blog reflective() throws IllegalAccessException {
+        Blog blog = new Blog("title", "content");
+        for (Map.Entry<String, Object> update : updates.entrySet()) {
+            try {
+                Field field = blog.getClass().getDeclaredField(update.getKey());
+                field.setAccessible(true);
+                field.set(blog, update.getValue());
+            } catch (NoSuchFieldException e) {
+                // ignored, as the old implementation did
+            }
+        }
+        return blog;
+    }
+
+    @Benchmark
+    public Blog precompiled() {
+        Blog blog = new Blog("title", "content");
+        patcher.apply(blog, updates);
+        return blog;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(BlogPatchBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.objects.UserType;
+import com.example.BlogManager.repositories.BlogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BlogSearchIndexTest {
+    @TempDir
+    private Path dir;
+
+    private final BlogRepository blogRepository = mock(BlogRepository.class);
+
+    @Test
+    void search_ShouldMatchAllTermsAndRankTitleMatchesFirst() {
+        BlogSearchIndex index = newIndex();
+        index.index(blog(1L, "Cooking pasta", "a spring recipe"));
+        index.index(blog(2L, "Spring boot", "pasta is not involved"));
+        index.index(blog(3L, "Spring", "nothing else"));
+
+        assertThat(index.search("Spring pasta", null, null, 0, 10)).containsExactly(
+                new BlogSearchIndex.Match(2L, 1f), new BlogSearchIndex.Match(1L, 1f));
+        assertThat(index.search("spring", null, null, 0, 10)).extracting(BlogSearchIndex.Match::id).containsExactly(3L, 2L, 1L);
+        // seek past (rank 1, id 2)
+        assertThat(index.search("spring", null, 1f, 2L, 10)).extracting(BlogSearchIndex.Match::id).containsExactly(1L);
+    }
+
+    @Test
+    void indexAndRemove_ShouldReplaceOldTerms() {
+        BlogSearchIndex index = newIndex();
+        index.index(blog(1L, "Old title", "content"));
+        index.index(blog(1L, "New title", "content"));
+
+        assertThat(index.search("old", null, null, 0, 10)).isEmpty();
+        assertThat(index.search("new", null, null, 0, 10)).extracting(BlogSearchIndex.Match::id).containsExactly(1L);
+
+        index.remove(1L);
+        assertThat(index.search("content", null, null, 0, 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void search_WithAuthor_ShouldOnlyMatchThatAuthorsBlogs() {
+        BlogSearchIndex index = newIndex();
+        index.index(blog(1L, "Spring", "by john", author(7L)));
+        index.index(blog(2L, "Spring", "by jane", author(8L)));
+
+        assertThat(index.search("spring", 7L, null, 0, 10)).extracting(BlogSearchIndex.Match::id).containsExactly(1L);
+        assertThat(index.search("spring", 9L, null, 0, 10)).isEmpty();
+        assertThat(index.search("spring", null, null, 0, 10)).extracting(BlogSearchIndex.Match::id).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void warmUp_ShouldDropDeletedBlogsAndReReadBlogsWrittenSinceTheSnapshot() {
+        BlogSearchIndex first = newIndex();
+        first.index(blog(5L, "Snapshotted", "blog"));
+        first.index(blog(1L, "Deleted later", "blog"));
+        Instant beforeSnapshot = Instant.now();
+        first.snapshot();
+
+        // 3 was created after the snapshot with a lower id (ids come in blocks), 5 was edited, 1 is gone
+        when(blogRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(3L, 5L));
+        when(blogRepository.findPageChangedSince(any(Instant.class), eq(0L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(blog(3L, "Created later", "blog"), blog(5L, "Edited", "blog"))));
+        BlogSearchIndex restarted = newIndex();
+        restarted.warmUp();
+
+        ArgumentCaptor<Instant> since = ArgumentCaptor.forClass(Instant.class);
+        verify(blogRepository).findPageChangedSince(since.capture(), eq(0L), any(Pageable.class));
+        assertThat(since.getValue()).isBeforeOrEqualTo(beforeSnapshot.minus(Duration.ofMinutes(1))); // catch-up margin
+        verify(blogRepository, never()).findPageAfterId(anyLong(), any(Pageable.class));
+        assertThat(restarted.search("blog", null, null, 0, 10)).extracting(BlogSearchIndex.Match::id).containsExactly(5L, 3L);
+        assertThat(restarted.search("snapshotted", null, null, 0, 10)).isEmpty();
+    }
+
+    @Test
+    void warmUp_SnapshottedBlogWithoutAuthor_ShouldBeReReadSoItsAuthorFindsIt() {
+        BlogSearchIndex first = newIndex();
+        first.index(blog(1L, "Imported", "blog")); // how the import used to index
+        first.index(blog(2L, "Written", "blog", author(7L)));
+        first.snapshot();
+
+        when(blogRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(blogRepository.findPageChangedSince(any(Instant.class), eq(0L), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
+        when(blogRepository.findAllById(List.of(1L))).thenReturn(List.of(blog(1L, "Imported", "blog", author(7L))));
+        BlogSearchIndex restarted = newIndex();
+        restarted.warmUp();
+
+        verify(blogRepository).findAllById(List.of(1L)); // only the one without an author
+        assertThat(restarted.search("blog", 7L, null, 0, 10)).extracting(BlogSearchIndex.Match::id).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void warmUp_WithoutSnapshot_ShouldReadTheWholeTable() {
+        when(blogRepository.findPageAfterId(eq(0L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(blog(1L, "First", "blog"), blog(2L, "Second", "blog"))));
+
+        BlogSearchIndex index = newIndex();
+        index.warmUp();
+
+        assertThat(index.size()).isEqualTo(2);
+        verify(blogRepository, never()).findPageChangedSince(any(), anyLong(), any());
+    }
+
+    private BlogSearchIndex newIndex() {
+        return new BlogSearchIndex("index", dir.resolve("blog-search.idx"), Duration.ofMinutes(1), blogRepository);
+    }
+
+    private static Blog blog(Long id, String title, String content) {
+        return blog(id, title, content, null);
+    }
+
+    private static Blog blog(Long id, String title, String content, UserEntity author) {
+        Blog blog = new Blog(title, content);
+        blog.setId(id);
+        blog.setUserEntity(author);
+        return blog;
+    }
+
+    private static UserEntity author(Long id) {
+        UserEntity user = new UserEntity("Author", "author" + id, "hash", UserType.USER);
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.objects.UserType;
+import com.example.BlogManager.repositories.BlogRepository;
+import com.example.BlogManager.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Restart of the in-process index against a real table: rows inserted behind its back (JDBC, explicit ids below the
+// snapshot's highest id), edits and deletes made after the snapshot must all be visible after warm-up.
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // warm-up reads committed rows, like on startup
+class BlogSearchIndexWarmUpTest {
+    private static final String INSERT = "INSERT INTO blogs (id, title, content, user_id, comment_count) VALUES (?, ?, ?, ?, 0)";
+
+    @TempDir
+    private Path dir;
+
+    @Autowired
+    private BlogRepository blogRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        blogRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void warmUp_ShouldCatchUpWithInsertsEditsAndDeletesAfterTheSnapshot() {
+        UserEntity author = userRepository.save(new UserEntity("Author", "author", "hash", UserType.USER));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update(INSERT, 100_000L, "kept", "lasagna", author.getId());
+        jdbcTemplate.update(INSERT, 200_000L, "edited", "lasagna", author.getId());
+        jdbcTemplate.update(INSERT, 300_000L, "deleted", "lasagna", author.getId());
+
+        BlogSearchIndex first = newIndex();
+        first.warmUp(); // no snapshot yet -> read from the table
+        assertThat(first.search("lasagna", author.getId(), null, 0, 10)).hasSize(3); // author terms from the lazy proxy
+        first.snapshot();
+
+        jdbcTemplate.update(INSERT, 150_000L, "late", "lasagna", author.getId()); // another node's id block
+        Blog edited = blogRepository.findById(200_000L).orElseThrow();
+        edited.setContent("risotto");
+        blogRepository.save(edited);
+        blogRepository.deleteById(300_000L);
+
+        BlogSearchIndex restarted = newIndex();
+        restarted.warmUp();
+
+        assertThat(restarted.search("lasagna", null, null, 0, 10)).extracting(BlogSearchIndex.Match::id)
+                .containsExactly(150_000L, 100_000L);
+        assertThat(restarted.search("risotto", author.getId(), null, 0, 10)).extracting(BlogSearchIndex.Match::id)
+                .containsExactly(200_000L);
+        assertThat(restarted.size()).isEqualTo(3);
+    }
+
+    private BlogSearchIndex newIndex() {
+        // no margin -> only rows stamped after the snapshot are re-read, so updated_at itself is what's tested
+        return new BlogSearchIndex("index", dir.resolve("blog-search.idx"), Duration.ZERO, blogRepository);
+    }
+}
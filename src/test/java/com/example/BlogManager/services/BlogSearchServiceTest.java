@@ -0,0 +1,139 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.dto.BlogSearchHit;
+import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.objects.UserType;
+import com.example.BlogManager.repositories.BlogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BlogSearchServiceTest {
+
+    @Mock
+    private BlogRepository blogRepository;
+    @Mock
+    private BlogSearchIndex blogSearchIndex;
+    @Mock
+    private BlogService blogService;
+
+    @InjectMocks
+    private BlogSearchService blogSearchService;
+
+    private record Hit(Long getId, String getTitle, String getAuthorUserId, String getSnippet, Float getRank) implements BlogSearchHit {
+    }
+
+    @Test
+    void search_FullPage_ReturnsCursorThatSeeksAfterLastHit() {
+        // Given -> size + 1 rows means there is another page
+        loggedIn("admin", 1L, UserType.ADMIN);
+        when(blogRepository.searchFirstPage("spring", 0, 3)).thenReturn(List.of(
+                new Hit(9L, "Spring", "john", "...", 0.9f),
+                new Hit(4L, "Spring boot", "john", "...", 0.6f),
+                new Hit(7L, "Boot", "jane", "...", 0.3f)));
+
+        // When
+        Map<String, Object> firstPage = blogSearchService.search("spring", null, 2, "admin");
+
+        // Then
+        assertThat((List<?>) firstPage.get("data")).hasSize(2);
+        String nextCursor = (String) firstPage.get("nextCursor");
+        assertThat(nextCursor).isNotNull();
+
+        blogSearchService.search("spring", nextCursor, 2, "admin");
+        verify(blogRepository).searchPageAfter("spring", 0, 0.6f, 4L, 3);
+    }
+
+    @Test
+    void search_LastPage_HasNoCursor() {
+        loggedIn("admin", 1L, UserType.ADMIN);
+        when(blogRepository.searchFirstPage("spring", 0, 11)).thenReturn(List.of(new Hit(9L, "Spring", "john", "...", 0.9f)));
+
+        Map<String, Object> page = blogSearchService.search("spring", null, 10, "admin");
+
+        assertThat((List<?>) page.get("data")).hasSize(1);
+        assertThat(page.get("nextCursor")).isNull();
+    }
+
+    @Test
+    void search_RejectsBlankQueryAndForeignCursor() {
+        assertThatThrownBy(() -> blogSearchService.search("  ", null, 10, "john")).isInstanceOf(IllegalArgumentException.class);
+
+        String listingCursor = new BlogCursor("title", "abc", 5).encode();
+        assertThatThrownBy(() -> blogSearchService.search("spring", listingCursor, 10, "john")).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(blogRepository);
+    }
+
+    @Test
+    void search_NonAdmin_ShouldOnlySearchOwnBlogs() {
+        loggedIn("john", 7L, UserType.USER);
+        when(blogRepository.searchFirstPage("spring", 7L, 11)).thenReturn(List.of());
+
+        blogSearchService.search("spring", null, 10, "john");
+
+        verify(blogRepository).searchFirstPage("spring", 7L, 11);
+    }
+
+    @Test
+    void search_IndexEngine_NonAdmin_ShouldFilterOnTheAuthor() {
+        loggedIn("john", 7L, UserType.USER);
+        when(blogSearchIndex.isEnabled()).thenReturn(true);
+        when(blogSearchIndex.search("spring", 7L, null, 0, 11)).thenReturn(List.of());
+
+        assertThat((List<?>) blogSearchService.search("spring", null, 10, "john").get("data")).isEmpty();
+    }
+
+    @Test
+    void search_IndexEngine_LoadsRowsForMatchesInRankOrder() {
+        loggedIn("admin", 1L, UserType.ADMIN);
+        when(blogSearchIndex.isEnabled()).thenReturn(true);
+        when(blogSearchIndex.search("spring", null, null, 0, 11)).thenReturn(List.of(
+                new BlogSearchIndex.Match(4L, 1f), new BlogSearchIndex.Match(9L, 0f)));
+        when(blogRepository.findSearchRowsByIds(List.of(4L, 9L))).thenReturn(List.of(
+                new Hit(9L, "Boot", "jane", "...", 0f), new Hit(4L, "Spring", "john", "...", 0f)));
+
+        Map<String, Object> page = blogSearchService.search("spring", null, 10, "admin");
+
+        List<?> data = (List<?>) page.get("data");
+        assertThat(data).extracting("id", "rank").containsExactly(
+                tuple(4L, 1f), tuple(9L, 0f));
+        verify(blogRepository, never()).searchFirstPage(anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    void search_IndexEngine_MatchWithoutRow_ShouldNotEndThePaging() {
+        loggedIn("admin", 1L, UserType.ADMIN);
+        when(blogSearchIndex.isEnabled()).thenReturn(true);
+        when(blogSearchIndex.search("spring", null, null, 0, 3)).thenReturn(List.of(
+                new BlogSearchIndex.Match(9L, 1f), new BlogSearchIndex.Match(8L, 1f), new BlogSearchIndex.Match(4L, 0f)));
+        when(blogRepository.findSearchRowsByIds(List.of(9L, 8L))).thenReturn(List.of(
+                new Hit(9L, "Spring", "john", "...", 0f))); // 8 was deleted, the index doesn't know yet
+
+        Map<String, Object> page = blogSearchService.search("spring", null, 2, "admin");
+
+        assertThat((List<?>) page.get("data")).extracting("id").containsExactly(9L);
+        String nextCursor = (String) page.get("nextCursor");
+        assertThat(nextCursor).isNotNull();
+
+        blogSearchService.search("spring", nextCursor, 2, "admin");
+        verify(blogSearchIndex).search("spring", null, 1f, 8L, 3); // seeks past the dropped match, not the last row
+    }
+
+    private void loggedIn(String userId, Long id, UserType userType) {
+        UserEntity user = new UserEntity("Name", userId, "hash", userType);
+        user.setId(id);
+        when(blogService.fetchUserDetailsFromDB(userId)).thenReturn(user);
+    }
+}
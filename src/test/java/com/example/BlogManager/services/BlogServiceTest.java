@@ -1,25 +1,36 @@
 package com.example.BlogManager.services;
 
-
+import com.example.BlogManager.dto.BlogDetail;
+import com.example.BlogManager.dto.BlogSummary;
+import com.example.BlogManager.dto.BlogVersion;
+import com.example.BlogManager.dto.CommentVersion;
+import com.example.BlogManager.exceptions.PreconditionFailedCustomException;
 import com.example.BlogManager.exceptions.ResourceNotFoundCustomException;
 import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.objects.Comment;
 import com.example.BlogManager.objects.UserEntity;
 import com.example.BlogManager.objects.UserType;
 import com.example.BlogManager.repositories.BlogRepository;
+import com.example.BlogManager.repositories.CommentRepository;
 import com.example.BlogManager.repositories.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,7 +38,18 @@ public class BlogServiceTest {
     @Mock
     private BlogRepository blogRepository;
     @Mock
+    private CommentRepository commentRepository;
+    @Mock
     private UserRepository userRepository;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private PrincipalCache principalCache = new PrincipalCache(100, Duration.ofMinutes(5), meterRegistry);
+    @Spy
+    private BlogPatcher blogPatcher = new BlogPatcher();
+    @Spy
+    private BlogCache blogCache = new BlogCache(100, Duration.ofMinutes(1), null);
+    @Mock
+    private BlogSearchIndex blogSearchIndex;
     @InjectMocks
     private BlogService blogService;
 
@@ -61,41 +83,140 @@ public class BlogServiceTest {
         Blog result = blogService.save(testBlog, "user123");
 
         assertThat(result).isNotNull();
-        assertThat(result.getUserEntity()).isEqualTo(regularUser);
+        assertThat(result.getUserEntity()).usingRecursiveComparison().isEqualTo(regularUser);
         verify(blogRepository).save(testBlog);
         verify(userRepository).findByUserId("user123");
+        verify(blogSearchIndex).index(testBlog);
+    }
+
+    @Test
+    void fetchUserDetailsFromDB_ShouldHitDatabaseOnlyOnce() {
+        when(userRepository.findByUserId("user123")).thenReturn(Optional.of(regularUser));
+
+        UserEntity first = blogService.fetchUserDetailsFromDB("user123");
+        UserEntity second = blogService.fetchUserDetailsFromDB("user123");
+
+        assertThat(first).usingRecursiveComparison().isEqualTo(regularUser);
+        assertThat(second).usingRecursiveComparison().isEqualTo(regularUser);
+        verify(userRepository, times(1)).findByUserId("user123");
+        assertThat(principalCache.stats().hitCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "principal").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fetchUserDetailsFromDB_ChangingTheResult_ShouldNotChangeTheCachedPrincipal() {
+        when(userRepository.findByUserId("user123")).thenReturn(Optional.of(regularUser));
+
+        blogService.fetchUserDetailsFromDB("user123").setUserType(UserType.ADMIN);
+
+        assertThat(blogService.fetchUserDetailsFromDB("user123").getUserType()).isEqualTo(UserType.USER);
     }
 
     @Test
     void findById_BlogExists_ShouldReturnBlog() {
-        when(blogRepository.findById(1L)).thenReturn(Optional.of(testBlog));
+        BlogDetail detail = BlogDetail.of(testBlog);
+        when(blogRepository.findDetailById(1L)).thenReturn(Optional.of(detail));
+        stubFirstComments(List.of(), false);
 
-        Blog result = blogService.findById(1L);
+        Optional<BlogDetail> result = blogService.findById(1L, "user123");
 
-        assertThat(result).isEqualTo(testBlog);
-        verify(blogRepository).findById(1L);
+        assertThat(result).isPresent().contains(detail.withComments(List.of(), null));
+        verify(blogRepository).findDetailById(1L);
+        verifyNoInteractions(userRepository); // owner check against the cached author userId
     }
 
     @Test
-    void findById_BlogNotFound_ShouldThrowException() {
-        when(blogRepository.findById(999L)).thenReturn(Optional.empty());
+    void findById_RepeatedReads_ShouldHitDatabaseOnce() {
+        when(blogRepository.findDetailById(1L)).thenReturn(Optional.of(BlogDetail.of(testBlog)));
+        stubFirstComments(List.of(), false);
 
-        assertThatThrownBy(() -> blogService.findById(999L))
-                .isInstanceOf(ResourceNotFoundCustomException.class)
-                .hasMessageContaining("blog not found with blog id: 999");
-        verify(blogRepository).findById(999L);
+        blogService.findById(1L, "user123");
+        Optional<BlogDetail> result = blogService.findById(1L, "user123");
+
+        assertThat(result).isPresent();
+        verify(blogRepository, times(1)).findDetailById(1L);
+        verify(commentRepository, times(2)).findPageByBlogIdAfter(eq(1L), eq(0L), any(Pageable.class)); // comments aren't cached
     }
 
     @Test
-    void findByIdWithUser_ShouldReturnBlog() {
-        regularUser.setBlogs(Collections.singletonList(testBlog));
-        when(userRepository.findByUserId("user123")).thenReturn(Optional.of(regularUser));
-        when(blogRepository.findByUserEntityIdAndId(2L, 1L)).thenReturn(Optional.of(testBlog));
+    void findById_BlogNotFound_ShouldBeEmpty() {
+        when(blogRepository.findDetailById(999L)).thenReturn(Optional.empty());
+
+        assertThat(blogService.findById(999L, "user123")).isEmpty();
+        verify(blogRepository).findDetailById(999L);
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void findByIdWithUser_ShouldEmbedTheFirstPageOfComments() {
+        when(blogRepository.findDetailById(1L)).thenReturn(Optional.of(BlogDetail.of(testBlog)));
+        Comment first = Comment.builder().id(5L).version(0L).content("first").build();
+        Comment last = Comment.builder().id(9L).version(2L).content("last").build();
+        stubFirstComments(List.of(first, last), true);
+
+        BlogDetail result = blogService.findById(1L, "user123").orElseThrow();
+
+        assertThat(result.comments()).containsExactly(first, last);
+        assertThat(result.commentsNextCursor()).isEqualTo(9L);
+        assertThat(blogCache.get(1L, id -> Optional.empty()).orElseThrow().comments()).isNull(); // the cached row stays comment-free
+    }
+
+    @Test
+    void findByIdWithUser_OtherUsersBlog_ShouldBeEmpty() {
+        when(blogRepository.findDetailById(1L)).thenReturn(Optional.of(BlogDetail.of(testBlog)));
+
+        Optional<BlogDetail> result = blogService.findById(1L, "admin123");
 
-        Optional<Blog> result = blogService.findById(1L, "user123");
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void canRead_Owner_ShouldNotLookUpThePrincipal() {
+        when(blogRepository.findDetailById(1L)).thenReturn(Optional.of(BlogDetail.of(testBlog)));
+
+        assertThat(blogService.canRead(1L, "user123")).isTrue();
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void canRead_OtherUser_ShouldBeDenied() {
+        UserEntity otherUser = new UserEntity("Other", "other123", "hash", UserType.USER);
+        when(blogRepository.findDetailById(1L)).thenReturn(Optional.of(BlogDetail.of(testBlog)));
+        when(userRepository.findByUserId("other123")).thenReturn(Optional.of(otherUser));
 
-        assertThat(result).isPresent().contains(testBlog);
-        verify(blogRepository).findByUserEntityIdAndId(2L, 1L);
+        assertThat(blogService.canRead(1L, "other123")).isFalse();
+    }
+
+    @Test
+    void canRead_Admin_ShouldReadAnyBlog() {
+        when(blogRepository.findDetailById(1L)).thenReturn(Optional.of(BlogDetail.of(testBlog)));
+        when(userRepository.findByUserId("admin123")).thenReturn(Optional.of(adminUser));
+
+        assertThat(blogService.canRead(1L, "admin123")).isTrue();
+    }
+
+    @Test
+    void canRead_MissingBlog_ShouldBeDenied() {
+        when(blogRepository.findDetailById(999L)).thenReturn(Optional.empty());
+
+        assertThat(blogService.canRead(999L, "admin123")).isFalse();
+    }
+
+    @Test
+    void currentVersion_ShouldMatchTheDetail_WithoutLoadingContent() {
+        Instant updatedAt = Instant.parse("2026-01-02T03:04:05.678Z");
+        testBlog.setUpdatedAt(updatedAt);
+        when(blogRepository.findDetailById(1L)).thenReturn(Optional.of(BlogDetail.of(testBlog)));
+        Comment comment = Comment.builder().id(5L).version(1L).content("c").build();
+        stubFirstComments(List.of(comment), false);
+        when(blogRepository.findVersion(1L, "user123")).thenReturn(Optional.of(new BlogVersion(0, 0, updatedAt)));
+        when(commentRepository.findVersionsByBlogId(eq(1L), any(Pageable.class))).thenReturn(List.of(new CommentVersion(5L, 1L)));
+
+        BlogVersion shown = BlogVersion.of(blogService.findById(1L, "user123").orElseThrow());
+        BlogVersion current = blogService.currentVersion(1L, "user123").orElseThrow();
+
+        assertThat(current.etag()).isEqualTo(shown.etag());
+        assertThat(current.lastModified()).isEqualTo(shown.lastModified()).isEqualTo(updatedAt.toEpochMilli());
     }
 
     @Test
@@ -125,6 +246,78 @@ public class BlogServiceTest {
         verifyNoInteractions(blogRepository);
     }
 
+    @Test
+    void findAll_UnknownSortColumn_ShouldBeRejected() {
+        when(userRepository.findByUserId("admin123")).thenReturn(Optional.of(adminUser));
+
+        assertThatThrownBy(() -> blogService.findAll(0, 10, "content", "admin123"))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(blogRepository);
+    }
+
+    @Test
+    void findAllByCursor_SortById_ShouldSeekAfterCursorAndReturnNextCursor() {
+        when(userRepository.findByUserId("admin123")).thenReturn(Optional.of(adminUser));
+        String cursor = new BlogCursor("id", null, 0).encode();
+        when(blogRepository.findPageAfterId(0L, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(testBlog), PageRequest.of(0, 1), true));
+
+        Map<String, Object> result = blogService.findAllByCursor(cursor, 1, "id", false, "admin123");
+
+        assertThat(((List<?>) result.get("data")).size()).isEqualTo(1);
+        assertThat(BlogCursor.decode((String) result.get("nextCursor"))).isEqualTo(new BlogCursor("id", null, 1L));
+        assertThat(result.containsKey("approximateTotalItems")).isFalse();
+        verify(blogRepository, never()).count();
+    }
+
+    @Test
+    void findAllByCursor_SortByTitle_ShouldContinueWithUntitledBlogs() {
+        Blog untitled = new Blog(null, "no title");
+        untitled.setId(7L);
+        when(userRepository.findByUserId("admin123")).thenReturn(Optional.of(adminUser));
+        when(blogRepository.findFirstTitledPage(PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(List.of(testBlog), PageRequest.of(0, 2), false));
+        when(blogRepository.findUntitledPageAfter(0L, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(untitled), PageRequest.of(0, 1), true));
+        when(blogRepository.estimateRowCount()).thenReturn(42L);
+
+        Map<String, Object> result = blogService.findAllByCursor("", 2, "title", true, "admin123");
+
+        assertThat((List<?>) result.get("data")).isEqualTo(List.of(testBlog, untitled));
+        assertThat(BlogCursor.decode((String) result.get("nextCursor"))).isEqualTo(new BlogCursor("title", null, 7L));
+        assertThat(result.get("approximateTotalItems")).isEqualTo(42L);
+    }
+
+    @Test
+    void findAllByCursor_CursorFromOtherSortColumn_ShouldBeRejected() {
+        when(userRepository.findByUserId("admin123")).thenReturn(Optional.of(adminUser));
+        String cursor = new BlogCursor("title", "Test Title", 1L).encode();
+
+        assertThatThrownBy(() -> blogService.findAllByCursor(cursor, 10, "id", false, "admin123"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void findMine_ShouldSeekBeforeCursorWithoutLoadingTheUser() {
+        BlogSummary summary = new BlogSummary(41L, "Test Title", "user123", 0L, "Test Content");
+        when(blogRepository.findPageByAuthorBefore("user123", 42L, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(summary), PageRequest.of(0, 1), true));
+
+        Map<String, Object> result = blogService.findMine(new BlogCursor("mine", null, 42L).encode(), 1, "user123");
+
+        assertThat(result.get("data")).isEqualTo(List.of(summary));
+        assertThat(BlogCursor.decode((String) result.get("nextCursor"))).isEqualTo(new BlogCursor("mine", null, 41L));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void findMine_CursorFromOtherListing_ShouldBeRejected() {
+        String cursor = new BlogCursor("id", null, 5L).encode();
+
+        assertThatThrownBy(() -> blogService.findMine(cursor, 10, "user123"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void deleteBlog_AdminUser_ShouldDeleteAndReturnBlog() {
         when(userRepository.findByUserId("admin123")).thenReturn(Optional.of(adminUser));
@@ -134,6 +327,8 @@ public class BlogServiceTest {
 
         assertThat(result).isEqualTo(testBlog);
         verify(blogRepository).deleteById(1L);
+        verify(blogCache).evict(1L);
+        verify(blogSearchIndex).remove(1L);
     }
 
     @Test
@@ -167,11 +362,12 @@ public class BlogServiceTest {
         when(blogRepository.findById(1L)).thenReturn(Optional.of(testBlog));
         when(blogRepository.save(any(Blog.class))).thenReturn(testBlog);
 
-        Blog result = blogService.updateBlog(1L, updatedBlog, "user123");
+        Blog result = blogService.updateBlog(1L, updatedBlog, "user123", null);
 
         assertThat(result).isEqualTo(testBlog);
         assertThat(testBlog.getTitle()).isEqualTo("Updated Title");
         verify(blogRepository).save(testBlog);
+        verify(blogCache).evict(1L);
     }
 
     @Test
@@ -183,10 +379,73 @@ public class BlogServiceTest {
         when(blogRepository.findById(1L)).thenReturn(Optional.of(testBlog));
         when(blogRepository.save(any(Blog.class))).thenReturn(testBlog);
 
-        Blog result = blogService.partialUpdate(1L, updates, "user123");
+        Blog result = blogService.partialUpdate(1L, updates, "user123", null);
 
         assertThat(result).isEqualTo(testBlog);
         assertThat(testBlog.getTitle()).isEqualTo("Partial Updated Title");
         verify(blogRepository).save(testBlog);
     }
+
+    @Test
+    void partialUpdate_ProtectedField_ShouldBeRejected() {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("title", "Sneaky Title");
+        updates.put("id", 42);
+
+        when(userRepository.findByUserId("user123")).thenReturn(Optional.of(regularUser));
+        when(blogRepository.findById(1L)).thenReturn(Optional.of(testBlog));
+
+        assertThatThrownBy(() -> blogService.partialUpdate(1L, updates, "user123", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("id");
+        assertThat(testBlog.getId()).isEqualTo(1L);
+        assertThat(testBlog.getTitle()).isEqualTo("Test Title");
+        verify(blogRepository, never()).save(any(Blog.class));
+    }
+
+    @Test
+    void partialUpdate_NonStringValue_ShouldBeCoerced() {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("content", 12345);
+
+        when(userRepository.findByUserId("user123")).thenReturn(Optional.of(regularUser));
+        when(blogRepository.findById(1L)).thenReturn(Optional.of(testBlog));
+        when(blogRepository.save(any(Blog.class))).thenReturn(testBlog);
+
+        blogService.partialUpdate(1L, updates, "user123", null);
+
+        assertThat(testBlog.getContent()).isEqualTo("12345");
+    }
+
+    @Test
+    void updateBlog_StaleIfMatch_ShouldBeRejectedWithoutSaving() {
+        when(userRepository.findByUserId("user123")).thenReturn(Optional.of(regularUser));
+        when(blogRepository.findById(1L)).thenReturn(Optional.of(testBlog));
+        when(blogRepository.findVersion(1L, "user123")).thenReturn(Optional.of(new BlogVersion(3, 0, null)));
+
+        assertThatThrownBy(() -> blogService.updateBlog(1L, new Blog("New", "New"), "user123", new BlogVersion(2, 0, null).withFirstComments(List.of(), null).etag()))
+                .isInstanceOf(PreconditionFailedCustomException.class);
+        verify(blogRepository, never()).save(any(Blog.class));
+    }
+
+    @Test
+    void partialUpdate_CurrentIfMatch_ShouldSave_WithoutLoadingComments() {
+        @SuppressWarnings("unchecked")
+        List<Comment> comments = mock(List.class);
+        testBlog.setComments(comments);
+        when(userRepository.findByUserId("user123")).thenReturn(Optional.of(regularUser));
+        when(blogRepository.findById(1L)).thenReturn(Optional.of(testBlog));
+        when(blogRepository.findVersion(1L, "user123")).thenReturn(Optional.of(new BlogVersion(3, 1, null)));
+        when(blogRepository.save(any(Blog.class))).thenReturn(testBlog);
+
+        blogService.partialUpdate(1L, Map.of("title", "New"), "user123", "W/\"weak\", " + new BlogVersion(3, 1, null).withFirstComments(List.of(), null).etag());
+
+        verify(blogRepository).save(testBlog);
+        verifyNoInteractions(comments); // the tag came from the version-only queries
+    }
+
+    private void stubFirstComments(List<Comment> comments, boolean hasNext) {
+        when(commentRepository.findPageByBlogIdAfter(eq(1L), eq(0L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(comments, PageRequest.of(0, BlogService.DETAIL_COMMENTS), hasNext));
+    }
 }
@@ -0,0 +1,179 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.dto.BlogCommentCount;
+import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.objects.Comment;
+import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.objects.UserType;
+import com.example.BlogManager.repositories.BlogRepository;
+import com.example.BlogManager.repositories.CommentRepository;
+import com.example.BlogManager.repositories.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "app.comment-counter.reconcile-on-startup=false")
+@Import({CommentCounter.class, BlogCache.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // flushes commit on their own
+class CommentCounterTest {
+    private static final int WRITERS = 8;
+    private static final int INCREMENTS_PER_WRITER = 2_000;
+
+    @Autowired
+    private CommentCounter commentCounter;
+    @Autowired
+    private BlogRepository blogRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    private UserEntity author;
+    private Long blogId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        author = userRepository.save(new UserEntity("Author", "author", "hash", UserType.USER));
+        Blog blog = new Blog("hot post", "content");
+        blog.setUserEntity(author);
+        blogId = blogRepository.save(blog).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        blogRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void newBlog_ShouldStartAtZero() {
+        assertThat(commentCount()).isZero();
+    }
+
+    @Test
+    void flush_ShouldMoveTheBlogsLastModified() throws InterruptedException {
+        Instant before = blogRepository.findDetailById(blogId).orElseThrow().updatedAt();
+        Thread.sleep(10);
+
+        commentCounter.increment(blogId);
+        commentCounter.flush();
+
+        assertThat(blogRepository.findDetailById(blogId).orElseThrow().updatedAt()).isAfter(before);
+    }
+
+    @Test
+    void concurrentIncrements_ShouldAllReachTheDatabase_WhileFlushesRun() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < INCREMENTS_PER_WRITER; i++) {
+                    commentCounter.increment(blogId);
+                    if (i % 4 == 0) commentCounter.decrement(blogId); // deleted comments, and idle adders being dropped
+                }
+                return null;
+            }));
+        }
+        Future<?> flusher = pool.submit(() -> {
+            start.await();
+            while (writing.get()) commentCounter.flush();
+            return null;
+        });
+
+        start.countDown();
+        for (Future<?> writer : writers) writer.get(30, TimeUnit.SECONDS);
+        writing.set(false);
+        flusher.get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+        commentCounter.flush();
+
+        assertThat(commentCount()).isEqualTo(WRITERS * (INCREMENTS_PER_WRITER - INCREMENTS_PER_WRITER / 4));
+        assertThat(commentCounter.pending(blogId)).isZero();
+    }
+
+    @Test
+    void reconcile_ShouldRecomputeDriftedCounts() {
+        Blog blog = blogRepository.findById(blogId).orElseThrow();
+        commentRepository.save(Comment.builder().content("one").blog(blog).userEntity(author).build());
+        commentRepository.save(Comment.builder().content("two").blog(blog).userEntity(author).build());
+        commentCounter.increment(blogId); // one increment got lost, e.g. the process died before the flush
+        commentCounter.flush();
+        assertThat(commentCount()).isEqualTo(1);
+
+        List<CommentCounter.Drift> drifted = commentCounter.findDrift();
+        assertThat(drifted).containsExactly(new CommentCounter.Drift(blogId, 1, 2));
+        assertThat(commentCounter.correct(drifted)).isEqualTo(1);
+
+        assertThat(commentCount()).isEqualTo(2);
+        assertThat(commentCounter.findDrift()).isEmpty(); // nothing left to fix
+    }
+
+    @Test
+    void reconcile_DeltaFlushedWhileSettling_ShouldNotBeCountedTwice() {
+        Blog blog = blogRepository.findById(blogId).orElseThrow();
+        commentRepository.save(Comment.builder().content("one").blog(blog).userEntity(author).build());
+        // the comment is committed, its +1 still sits in another node's adder
+        List<CommentCounter.Drift> drifted = commentCounter.findDrift();
+        assertThat(drifted).hasSize(1);
+
+        jdbcTemplate.update("UPDATE blogs SET comment_count = comment_count + 1 WHERE id = ?", blogId); // that node flushes
+
+        assertThat(commentCounter.correct(drifted)).isZero();
+        assertThat(commentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reconcile_CommentAddedWhileSettling_ShouldBeLeftForTheNextRun() {
+        Blog blog = blogRepository.findById(blogId).orElseThrow();
+        commentRepository.save(Comment.builder().content("one").blog(blog).userEntity(author).build());
+        List<CommentCounter.Drift> drifted = commentCounter.findDrift();
+
+        commentRepository.save(Comment.builder().content("two").blog(blog).userEntity(author).build());
+        commentCounter.increment(blogId); // still pending here
+
+        assertThat(commentCounter.correct(drifted)).isZero();
+        commentCounter.flush();
+        assertThat(commentCount()).isEqualTo(1); // only the pending delta, the drift of "one" is for the next run
+    }
+
+    @Test
+    void commentsOnOtherUsersBlogs_ShouldBeCountedPerBlog() {
+        UserEntity commenter = userRepository.save(new UserEntity("Commenter", "commenter", "hash", UserType.USER));
+        Blog own = new Blog("own", "content");
+        own.setUserEntity(commenter);
+        own = blogRepository.save(own);
+        Blog blog = blogRepository.findById(blogId).orElseThrow();
+        commentRepository.save(Comment.builder().content("one").blog(blog).userEntity(commenter).build());
+        commentRepository.save(Comment.builder().content("two").blog(blog).userEntity(commenter).build());
+        commentRepository.save(Comment.builder().content("mine").blog(own).userEntity(commenter).build()); // goes with the blog
+
+        assertThat(commentRepository.countByUserOnOtherBlogs(commenter.getId())).containsExactly(new BlogCommentCount(blogId, 2));
+    }
+
+    private long commentCount() {
+        return blogRepository.findById(blogId).orElseThrow().getCommentCount();
+    }
+}
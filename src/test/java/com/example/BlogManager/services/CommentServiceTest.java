@@ -6,6 +6,7 @@ import com.example.BlogManager.objects.Blog;
 import com.example.BlogManager.objects.Comment;
 import com.example.BlogManager.objects.UserEntity;
 import com.example.BlogManager.objects.UserType;
+import com.example.BlogManager.repositories.BlogRepository;
 import com.example.BlogManager.repositories.CommentRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,11 +14,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
@@ -27,6 +33,10 @@ public class CommentServiceTest {
     private CommentRepository commentRepository;
     @Mock
     private BlogService blogService;
+    @Mock
+    private BlogRepository blogRepository;
+    @Mock
+    private CommentCounter commentCounter;
 
     @InjectMocks
     private CommentService commentService;
@@ -45,7 +55,8 @@ public class CommentServiceTest {
     @Test
     void test_create_comment() {
         //Given
-        when(blogService.findById(1L)).thenReturn(testingBlog);
+        when(blogService.existsById(1L)).thenReturn(true);
+        when(blogRepository.getReferenceById(1L)).thenReturn(testingBlog);
         when(blogService.fetchUserDetailsFromDB("john")).thenReturn(creatorOfComment);
 
         Comment comment = Comment.builder().id(1L).content("this is testing comment").userEntity(creatorOfComment).blog(testingBlog).build();
@@ -58,6 +69,20 @@ public class CommentServiceTest {
         assertThat(checkComment.getContent()).isEqualTo("this is testing comment");
         verify(commentRepository).save(argThat(entity ->
                 entity.getContent().equals("this is testing comment")));
+        verify(commentCounter).increment(1L);
+        verify(blogService, never()).findById(any(), any()); // attached by reference, the blog (and its cache entry) isn't touched
+    }
+
+    @Test
+    void test_create_comment_on_missing_blog_throws_not_found() {
+        when(blogService.existsById(99L)).thenReturn(false);
+
+        Comment comment = Comment.builder().content("orphan").build();
+
+        assertThatThrownBy(() -> commentService.save(comment, "john", 99L))
+                .isInstanceOf(ResourceNotFoundCustomException.class);
+        verify(commentRepository, never()).save(any());
+        verifyNoInteractions(commentCounter);
     }
 
     @Test
@@ -92,6 +117,7 @@ public class CommentServiceTest {
 
         // Verify repository delete was actually called
         verify(commentRepository, times(1)).deleteById(commentId);
+        verify(commentCounter).decrement(testingBlog.getId());
     }
 
     @Test
@@ -178,4 +204,46 @@ public class CommentServiceTest {
 
         verify(commentRepository, never()).deleteById(anyLong());
     }
+
+    @Test
+    void test_findByBlog_returns_page_and_next_cursor() {
+        // Given
+        Comment first = Comment.builder().id(5L).content("first").build();
+        Comment second = Comment.builder().id(9L).content("second").build();
+        when(blogService.canRead(1L, "john")).thenReturn(true);
+        when(commentRepository.findPageByBlogIdAfter(1L, 3L, PageRequest.of(0, 2)))
+                .thenReturn(new SliceImpl<>(List.of(first, second), PageRequest.of(0, 2), true));
+
+        // When
+        Map<String, Object> result = commentService.findByBlog(1L, 3L, 2, "john");
+
+        // Then
+        assertThat(result.get("data")).isEqualTo(List.of(first, second));
+        assertThat(result.get("nextCursor")).isEqualTo(9L);
+        verify(commentRepository, never()).findAll();
+    }
+
+    @Test
+    void test_findByBlog_fail_blog_not_found() {
+        // Given
+        when(blogService.canRead(99L, "john")).thenReturn(false);
+
+        // When & Then
+        assertThatThrownBy(() -> commentService.findByBlog(99L, null, 20, "john"))
+                .isInstanceOf(ResourceNotFoundCustomException.class)
+                .hasMessageContaining("no blog with id: 99");
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void test_findByBlog_fail_not_owner_gets_not_found() {
+        // Given: the blog exists but belongs to someone else and the caller isn't ADMIN
+        when(blogService.canRead(1L, "john")).thenReturn(false);
+
+        // When & Then: same 404 as a missing blog, nothing is read
+        assertThatThrownBy(() -> commentService.findByBlog(1L, null, 20, "john"))
+                .isInstanceOf(ResourceNotFoundCustomException.class)
+                .hasMessageContaining("no blog with id: 1");
+        verifyNoInteractions(commentRepository);
+    }
 }
@@ -0,0 +1,103 @@
+package com.example.BlogManager.services;
+
+import com.example.BlogManager.objects.Blog;
+import com.example.BlogManager.objects.Comment;
+import com.example.BlogManager.objects.UserEntity;
+import com.example.BlogManager.objects.UserType;
+import com.example.BlogManager.repositories.BlogRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.BlogManager.configs.QueryCountAssertions.assertMaxQueries;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Query budgets of the read paths as a request sees them: service call + JSON serialization (which touches the lazy
+// comments). The budgets are independent of the page size, so an N+1 regression fails here instead of in production.
+@DataJpaTest(properties = "app.comment-counter.reconcile-on-startup=false")
+@Import({BlogService.class, CommentService.class, CommentCounter.class, PrincipalCache.class, BlogPatcher.class,
+        BlogCache.class, BlogSearchIndex.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class ServiceQueryBudgetTest {
+    private static final int BLOGS = 20;
+
+    @Autowired
+    private BlogService blogService;
+    @Autowired
+    private CommentService commentService;
+    @Autowired
+    private BlogRepository blogRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long blogId;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity admin = new UserEntity("Admin", "admin", "hash", UserType.ADMIN);
+        entityManager.persist(admin);
+        for (int i = 0; i < BLOGS; i++) {
+            Blog blog = new Blog("title " + i, "content " + i);
+            blog.setUserEntity(admin);
+            entityManager.persist(blog);
+            for (int c = 0; c < 3; c++) {
+                entityManager.persist(Comment.builder().content("comment " + c).blog(blog).userEntity(admin).build());
+            }
+            blogId = blog.getId();
+        }
+        entityManager.flush();
+        entityManager.createNativeQuery("UPDATE blogs SET comment_count = 3").executeUpdate(); // maintained outside of JPA (CommentCounter)
+        entityManager.clear(); // otherwise every lazy load is served from the persistence context
+    }
+
+    @Test
+    void blogPage_ShouldStayWithinBudget_WhateverThePageSize() {
+        // principal, page, count, one batched comment query
+        String json = assertMaxQueries(4, () -> toJson(blogService.findAll(0, BLOGS, "id", "admin")));
+
+        assertThat(json).contains("comment 2");
+    }
+
+    @Test
+    void cursorPage_ShouldStayWithinBudget() {
+        // principal, slice, one batched comment query
+        assertMaxQueries(3, () -> toJson(blogService.findAllByCursor(null, BLOGS, "id", false, "admin")));
+    }
+
+    @Test
+    void ownBlogs_ShouldBeOneQuery() {
+        Map<String, Object> page = assertMaxQueries(1, () -> blogService.findMine(null, BLOGS, "admin"));
+
+        assertThat((List<?>) page.get("data")).hasSize(BLOGS);
+    }
+
+    @Test
+    void commentPage_ShouldStayWithinBudget() {
+        // owner check (the blog's detail row, cached afterwards) + the page; the comments' users and blogs are lazy and not serialized
+        String json = assertMaxQueries(2, () -> toJson(commentService.findByBlog(blogId, null, 10, "admin")));
+
+        assertThat(json).contains("comment 0");
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.example.BlogManager.services;
 
+import com.example.BlogManager.dto.BlogCommentCount;
 import com.example.BlogManager.dto.UserDTO;
 import com.example.BlogManager.objects.UserEntity;
 import com.example.BlogManager.objects.UserType;
+import com.example.BlogManager.repositories.BlogRepository;
+import com.example.BlogManager.repositories.CommentRepository;
 import com.example.BlogManager.repositories.UserRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -14,9 +18,15 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
@@ -29,6 +39,18 @@ class UserServiceTest {
     private PasswordEncoder passwordEncoder;
     @Mock
     private AuthenticationManager authenticationManager;
+    @Mock
+    private PrincipalCache principalCache;
+    @Mock
+    private BlogRepository blogRepository;
+    @Mock
+    private BlogCache blogCache;
+    @Mock
+    private BlogSearchIndex blogSearchIndex;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private CommentCounter commentCounter;
 
     @InjectMocks
     private UserService userService;
@@ -70,6 +92,26 @@ class UserServiceTest {
         assertThat(result.getRecommendedUsernames()).isNotEmpty().hasSize(5);
     }
 
+    @Test
+    void register_ExistingUser_ChecksAllCandidatesInOneQuery() {
+        // Given
+        UserDTO input = new UserDTO("John", "john", "pass123", UserType.USER);
+        when(userRepository.existsByUserId("john")).thenReturn(true);
+        when(userRepository.findTakenUserIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> candidates = invocation.getArgument(0);
+            return candidates.stream().limit(10).toList(); // half of the batch is taken, "john" included
+        });
+
+        // When
+        UserDTO result = userService.register(input);
+
+        // Then
+        assertThat(result.getRecommendedUsernames()).hasSize(5).doesNotHaveDuplicates().doesNotContain("john");
+        verify(userRepository, times(1)).findTakenUserIds(anyCollection());
+        verify(userRepository, times(1)).existsByUserId(anyString());
+        verify(passwordEncoder, never()).encode(any());
+    }
+
     @Test
     void login_Successful_ReturnsToken() {
         // Given
@@ -102,4 +144,41 @@ class UserServiceTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessage("Authentication failed");
     }
+
+    @Test
+    void deleteUser_ExistingUser_EvictsPrincipalCacheAndTheirBlogs() {
+        // Given
+        UserEntity existing = new UserEntity("John", "john", "hash", UserType.USER);
+        existing.setId(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(blogRepository.findIdsByUserId(1L)).thenReturn(List.of(10L, 11L));
+
+        // When
+        UserEntity deleted = userService.deleteUser(1L);
+
+        // Then
+        assertThat(deleted).isEqualTo(existing);
+        verify(userRepository).deleteById(1L);
+        verify(principalCache).evict("john");
+        verify(blogCache).evict(10L);
+        verify(blogCache).evict(11L);
+        verify(blogSearchIndex).remove(10L);
+        verify(blogSearchIndex).remove(11L);
+    }
+
+    @Test
+    void deleteUser_CommentsOnOtherUsersBlogs_ShouldComeOffTheirCounts() {
+        UserEntity existing = new UserEntity("John", "john", "hash", UserType.USER);
+        existing.setId(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(commentRepository.countByUserOnOtherBlogs(1L)).thenReturn(List.of(new BlogCommentCount(20L, 3), new BlogCommentCount(21L, 1)));
+
+        userService.deleteUser(1L);
+
+        InOrder inOrder = inOrder(commentRepository, userRepository, commentCounter);
+        inOrder.verify(commentRepository).countByUserOnOtherBlogs(1L); // read before the cascade removes them
+        inOrder.verify(userRepository).deleteById(1L);
+        inOrder.verify(commentCounter).decrement(20L, 3);
+        inOrder.verify(commentCounter).decrement(21L, 1);
+    }
 }